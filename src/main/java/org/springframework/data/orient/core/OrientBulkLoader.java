@@ -0,0 +1,448 @@
+package org.springframework.data.orient.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.orm.orient.OrientObjectDatabaseFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
+import com.orientechnologies.orient.core.exception.OConcurrentModificationException;
+import com.orientechnologies.orient.core.intent.OIntentMassiveInsert;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
+
+/**
+ * Loads large numbers of entities with several worker threads. The entities are read from the given iterator on the
+ * calling thread and handed to the workers in batches. Each worker writes on its own pooled connection into its own
+ * cluster of the entity class and commits every batch in a separate transaction, so the workers do not contend for
+ * the same cluster. Batches failing with a {@link OConcurrentModificationException} are retried.
+ * <p>
+ * The clusters of the class are assigned to the workers round-robin, so the class should have at least as many
+ * clusters as there are workers, e.g. {@code ALTER CLASS Person ADDCLUSTER person_2}. A warning is logged otherwise.
+ * <p>
+ * The massive insert intent of the workers unregisters the hooks of their connections, so the write listeners of the
+ * database factory, e.g. the query caches, are notified of the class and of the written clusters once the load ends.
+ *
+ * @author Dzmitry_Naskou
+ */
+public class OrientBulkLoader {
+
+    /** The logger. */
+    private static final Logger log = LoggerFactory.getLogger(OrientBulkLoader.class);
+    
+    /** The default number of entities committed in one transaction. */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    
+    /** The default number of retries of a conflicting batch. */
+    public static final int DEFAULT_MAX_RETRIES = 3;
+    
+    /** The time in milliseconds to wait for a batch before checking whether loading is finished. */
+    private static final long POLL_TIMEOUT = 100;
+    
+    /** The database factory. */
+    private final OrientObjectDatabaseFactory dbf;
+    
+    /** The number of worker threads. */
+    private int threads = Runtime.getRuntime().availableProcessors();
+    
+    /** The number of entities committed in one transaction. */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    
+    /** The number of retries of a conflicting batch. */
+    private int maxRetries = DEFAULT_MAX_RETRIES;
+    
+    /**
+     * Instantiates a new {@link OrientBulkLoader}.
+     *
+     * @param dbf the database factory to acquire the connections of the workers from
+     */
+    public OrientBulkLoader(OrientObjectDatabaseFactory dbf) {
+        super();
+        this.dbf = dbf;
+    }
+    
+    /**
+     * Sets the number of worker threads. Defaults to the number of available processors.
+     *
+     * @param threads the new number of threads
+     */
+    public void setThreads(int threads) {
+        Assert.isTrue(threads > 0, "Number of threads must be positive!");
+        this.threads = threads;
+    }
+    
+    /**
+     * Sets the number of entities committed in one transaction.
+     *
+     * @param batchSize the new batch size
+     */
+    public void setBatchSize(int batchSize) {
+        Assert.isTrue(batchSize > 0, "Batch size must be positive!");
+        this.batchSize = batchSize;
+    }
+    
+    /**
+     * Sets the number of retries of a batch failing with a {@link OConcurrentModificationException}.
+     *
+     * @param maxRetries the new number of retries
+     */
+    public void setMaxRetries(int maxRetries) {
+        Assert.isTrue(maxRetries >= 0, "Number of retries must not be negative!");
+        this.maxRetries = maxRetries;
+    }
+    
+    /**
+     * Loads the given entities of the given class.
+     *
+     * @param domainClass the entity class
+     * @param entities the entities
+     * @return the statistics of the load
+     */
+    public Statistics load(Class<?> domainClass, Iterable<?> entities) {
+        return load(domainClass, entities.iterator());
+    }
+    
+    /**
+     * Loads the entities of the given class read from the given iterator, e.g. the iterator of a stream. Batches
+     * committed before a worker fails stay committed.
+     *
+     * @param domainClass the entity class
+     * @param entities the entities
+     * @return the statistics of the load
+     * @throws IllegalStateException if a batch could not be committed
+     */
+    public Statistics load(Class<?> domainClass, Iterator<?> entities) {
+        Assert.notNull(domainClass);
+        Assert.notNull(entities);
+        
+        BlockingQueue<List<Object>> batches = new ArrayBlockingQueue<List<Object>>(threads * 2);
+        LoadState state = new LoadState();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("orient-bulk-loader-"));
+        List<Future<?>> workers = new ArrayList<Future<?>>(threads);
+        long start = System.nanoTime();
+        
+        try {
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(new Worker(domainClass, i, batches, state)));
+            }
+            
+            produce(entities, batches, state);
+            
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            state.fail(e);
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            state.fail(e);
+        } finally {
+            state.finished = true;
+            executor.shutdown();
+            awaitTermination(executor);
+            
+            // Batches committed before a failure stay committed, so their sources are cleared in any case
+            dbf.notifyWritten(state.sources);
+        }
+        
+        Statistics statistics = new Statistics(state.records.get(), state.batches.get(), state.retries.get(), System.nanoTime() - start);
+        
+        if (state.failure.get() != null) {
+            throw new IllegalStateException(String.format("Could not load the entities of %s after %s!", domainClass.getName(), statistics), state.failure.get());
+        }
+        
+        log.info("Loaded the entities of {}: {}", domainClass.getName(), statistics);
+        
+        return statistics;
+    }
+    
+    private void awaitTermination(ExecutorService executor) {
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void produce(Iterator<?> entities, BlockingQueue<List<Object>> batches, LoadState state) throws InterruptedException {
+        List<Object> batch = new ArrayList<Object>(batchSize);
+        
+        while (entities.hasNext() && state.failure.get() == null) {
+            batch.add(entities.next());
+            
+            if (batch.size() == batchSize) {
+                offer(batches, batch, state);
+                batch = new ArrayList<Object>(batchSize);
+            }
+        }
+        
+        if (!batch.isEmpty()) {
+            offer(batches, batch, state);
+        }
+        
+        state.finished = true;
+    }
+    
+    private void offer(BlockingQueue<List<Object>> batches, List<Object> batch, LoadState state) throws InterruptedException {
+        // Stop waiting for free space when the workers are gone
+        while (state.failure.get() == null) {
+            if (batches.offer(batch, POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * The state shared by the producer and the workers of a load.
+     */
+    private static class LoadState {
+        
+        /** Whether all the batches were produced. */
+        volatile boolean finished;
+        
+        /** The first failure of a worker. */
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        
+        /** The number of committed records. */
+        final AtomicLong records = new AtomicLong();
+        
+        /** The number of committed batches. */
+        final AtomicLong batches = new AtomicLong();
+        
+        /** The number of retried batches. */
+        final AtomicLong retries = new AtomicLong();
+        
+        /** The names of the classes and clusters written. */
+        final Set<String> sources = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        
+        void fail(Throwable e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+    
+    /**
+     * Writes the batches into one cluster of the class on its own pooled connection.
+     */
+    private class Worker implements Runnable {
+        
+        /** The entity class. */
+        private final Class<?> domainClass;
+        
+        /** The index of the worker. */
+        private final int index;
+        
+        /** The batches to write. */
+        private final BlockingQueue<List<Object>> batches;
+        
+        /** The shared state. */
+        private final LoadState state;
+        
+        public Worker(Class<?> domainClass, int index, BlockingQueue<List<Object>> batches, LoadState state) {
+            super();
+            this.domainClass = domainClass;
+            this.index = index;
+            this.batches = batches;
+            this.state = state;
+        }
+        
+        /* (non-Javadoc)
+         * @see java.lang.Runnable#run()
+         */
+        @Override
+        public void run() {
+            OObjectDatabaseTx db = dbf.openDatabase();
+            
+            try {
+                String cluster = resolveCluster(db);
+                
+                db.declareIntent(new OIntentMassiveInsert());
+                
+                while (state.failure.get() == null) {
+                    List<Object> batch = batches.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                    
+                    if (batch != null) {
+                        write(db, cluster, batch);
+                    } else if (state.finished && batches.isEmpty()) {
+                        // The last batch may be offered after the poll timed out, so the queue is checked once finished
+                        break;
+                    }
+                }
+            } catch (InterruptedException e) {
+                state.fail(e);
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                state.fail(e);
+            } finally {
+                db.declareIntent(null);
+                
+                if (!db.isClosed()) {
+                    db.close();
+                }
+                
+                ODatabaseRecordThreadLocal.INSTANCE.remove();
+            }
+        }
+        
+        private void write(OObjectDatabaseTx db, String cluster, List<Object> batch) {
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    db.begin();
+                    
+                    for (Object entity : batch) {
+                        db.save(entity, cluster);
+                    }
+                    
+                    db.commit();
+                    
+                    state.records.addAndGet(batch.size());
+                    state.batches.incrementAndGet();
+                    
+                    return;
+                } catch (OConcurrentModificationException e) {
+                    db.rollback();
+                    
+                    if (attempt >= maxRetries) {
+                        throw e;
+                    }
+                    
+                    state.retries.incrementAndGet();
+                    log.debug("Retrying a conflicting batch of {} entities", batch.size(), e);
+                } catch (RuntimeException e) {
+                    if (db.getTransaction().isActive()) {
+                        db.rollback();
+                    }
+                    
+                    throw e;
+                }
+            }
+        }
+        
+        private String resolveCluster(OObjectDatabaseTx db) {
+            OClass oClass = db.getMetadata().getSchema().getClass(domainClass.getSimpleName());
+            
+            if (oClass == null) {
+                throw new IllegalStateException(String.format("Class %s is not registered in the database!", domainClass.getName()));
+            }
+            
+            int[] clusterIds = oClass.getClusterIds();
+            
+            if (index == 0 && clusterIds.length < threads) {
+                log.warn("Class {} has {} clusters for {} workers, so workers share clusters and contend for them", oClass.getName(), clusterIds.length, threads);
+            }
+            
+            String cluster = db.getClusterNameById(clusterIds[index % clusterIds.length]);
+            
+            for (OClass type = oClass; type != null; type = type.getSuperClass()) {
+                state.sources.add(type.getName());
+            }
+            
+            state.sources.add(cluster);
+            
+            return cluster;
+        }
+    }
+    
+    /**
+     * The statistics of a load.
+     */
+    public static class Statistics {
+        
+        /** The number of committed records. */
+        private final long records;
+        
+        /** The number of committed batches. */
+        private final long batches;
+        
+        /** The number of retried batches. */
+        private final long retries;
+        
+        /** The elapsed time in nanoseconds. */
+        private final long elapsedNanos;
+        
+        /**
+         * Instantiates a new {@link Statistics}.
+         *
+         * @param records the number of committed records
+         * @param batches the number of committed batches
+         * @param retries the number of retried batches
+         * @param elapsedNanos the elapsed time in nanoseconds
+         */
+        public Statistics(long records, long batches, long retries, long elapsedNanos) {
+            super();
+            this.records = records;
+            this.batches = batches;
+            this.retries = retries;
+            this.elapsedNanos = elapsedNanos;
+        }
+        
+        /**
+         * Gets the number of committed records.
+         *
+         * @return the records
+         */
+        public long getRecords() {
+            return records;
+        }
+        
+        /**
+         * Gets the number of committed batches.
+         *
+         * @return the batches
+         */
+        public long getBatches() {
+            return batches;
+        }
+        
+        /**
+         * Gets the number of retried batches.
+         *
+         * @return the retries
+         */
+        public long getRetries() {
+            return retries;
+        }
+        
+        /**
+         * Gets the elapsed time in milliseconds.
+         *
+         * @return the elapsed time
+         */
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+        
+        /**
+         * Gets the throughput in records per second.
+         *
+         * @return the throughput
+         */
+        public double getThroughput() {
+            return elapsedNanos == 0 ? 0 : records * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+        
+        /* (non-Javadoc)
+         * @see java.lang.Object#toString()
+         */
+        @Override
+        public String toString() {
+            return String.format("%d records in %d batches (%d retried) in %d ms, %.1f records/s", records, batches, retries, getElapsedMillis(), getThroughput());
+        }
+    }
+}
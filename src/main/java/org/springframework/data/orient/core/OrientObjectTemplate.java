@@ -5,16 +5,19 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.Callable;
 
 import com.orientechnologies.orient.core.cache.OLocalRecordCache;
 import org.springframework.data.orient.object.repository.DetachMode;
 import org.springframework.orm.orient.OrientObjectDatabaseFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.orientechnologies.orient.core.command.OCommandOutputListener;
@@ -25,8 +28,10 @@ import com.orientechnologies.orient.core.db.ODatabase.STATUS;
 import com.orientechnologies.orient.core.db.ODatabaseComplex;
 import com.orientechnologies.orient.core.db.ODatabaseComplex.OPERATION_MODE;
 import com.orientechnologies.orient.core.db.ODatabaseListener;
+import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
 import com.orientechnologies.orient.core.db.object.ODatabaseObject;
+import com.orientechnologies.orient.core.db.record.ODatabaseRecord;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.dictionary.ODictionary;
 import com.orientechnologies.orient.core.entity.OEntityManager;
@@ -38,10 +43,13 @@ import com.orientechnologies.orient.core.hook.ORecordHook.TYPE;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.id.ORecordId;
 import com.orientechnologies.orient.core.intent.OIntent;
+import com.orientechnologies.orient.core.intent.OIntentMassiveInsert;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.metadata.security.OUser;
 import com.orientechnologies.orient.core.query.OQuery;
 import com.orientechnologies.orient.core.record.ORecordInternal;
 import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.OCommandSQL;
 import com.orientechnologies.orient.core.sql.query.OSQLQuery;
 import com.orientechnologies.orient.core.storage.ORecordCallback;
 import com.orientechnologies.orient.core.storage.ORecordMetadata;
@@ -67,6 +75,11 @@ public class OrientObjectTemplate implements OrientObjectOperations {
         this.dbf = dbf;
     }
     
+    @Override
+    public OrientObjectDatabaseFactory getDatabaseFactory() {
+        return dbf;
+    }
+    
     public OObjectDatabaseTx database() {
         return dbf.db();
     }
@@ -231,10 +244,155 @@ public class OrientObjectTemplate implements OrientObjectOperations {
         dbf.db().setUser(user);
     }
 
+    @Override
     public <RET extends OCommandRequest> RET command(OCommandRequest iCommand) {
         return dbf.db().command(iCommand);
     }
 
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.core.OrientOperations#deleteAll(java.lang.Iterable)
+     */
+    @Override
+    public int deleteAll(Iterable<? extends ORID> rids) {
+        final OObjectDatabaseTx db = dbf.db();
+        int count = 0;
+        
+        for (ORID rid : rids) {
+            db.delete(rid);
+            count++;
+        }
+        
+        return count;
+    }
+
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.core.OrientOperations#deleteAllOfClass(java.lang.String)
+     */
+    @Override
+    public long deleteAllOfClass(String className) {
+        OObjectDatabaseTx db = dbf.db();
+        
+        if (db.getMetadata().getSchema().getClass(className) == null) {
+            return 0;
+        }
+        
+        return delete(db, "delete from " + className);
+    }
+
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.core.OrientOperations#deleteAllOfCluster(java.lang.String)
+     */
+    @Override
+    public long deleteAllOfCluster(String clusterName) {
+        return delete(dbf.db(), "delete from cluster:" + clusterName);
+    }
+
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.core.OrientOperations#truncateClass(java.lang.String)
+     */
+    @Override
+    @Transactional(propagation = Propagation.NEVER)
+    public long truncateClass(String className) {
+        ODatabaseRecord previous = ODatabaseRecordThreadLocal.INSTANCE.getIfDefined();
+        OObjectDatabaseTx db = dbf.openDatabase();
+        
+        try {
+            OClass oClass = db.getMetadata().getSchema().getClass(className);
+            
+            if (oClass == null) {
+                return 0;
+            }
+            
+            // Truncating is not polymorphic, so classes with subclasses are deleted from
+            if (canTruncate(db) && !hasSubclasses(db, oClass)) {
+                return truncate(db, "truncate class " + className, oClass.count());
+            }
+            
+            return delete(db, "delete from " + className);
+        } finally {
+            close(db, previous);
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.core.OrientOperations#truncateCluster(java.lang.String)
+     */
+    @Override
+    @Transactional(propagation = Propagation.NEVER)
+    public long truncateCluster(String clusterName) {
+        ODatabaseRecord previous = ODatabaseRecordThreadLocal.INSTANCE.getIfDefined();
+        OObjectDatabaseTx db = dbf.openDatabase();
+        
+        try {
+            if (canTruncate(db)) {
+                return truncate(db, "truncate cluster " + clusterName, db.countClusterElements(clusterName));
+            }
+            
+            return delete(db, "delete from cluster:" + clusterName);
+        } finally {
+            close(db, previous);
+        }
+    }
+    
+    /**
+     * Checks whether the records of the given database can be truncated. Truncating does not fire the hooks of the
+     * records, so it is only used when no hooks but the ones of OrientDB itself are registered with the database.
+     *
+     * @param db the database
+     * @return true, if records can be truncated
+     */
+    private boolean canTruncate(OObjectDatabaseTx db) {
+        for (ORecordHook hook : db.getHooks().keySet()) {
+            if (!hook.getClass().getName().startsWith("com.orientechnologies.")) {
+                return false;
+            }
+        }
+        
+        return true;
+    }
+    
+    private boolean hasSubclasses(OObjectDatabaseTx db, OClass oClass) {
+        for (OClass candidate : db.getMetadata().getSchema().getClasses()) {
+            if (oClass.equals(candidate.getSuperClass())) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    private long truncate(OObjectDatabaseTx db, String command, long count) {
+        db.command(new OCommandSQL(command)).execute();
+        // The truncated records are not evicted from the cache by the command
+        db.getLocalCache().clear();
+        
+        return count;
+    }
+    
+    private long delete(OObjectDatabaseTx db, String command) {
+        Object result = db.command(new OCommandSQL(command)).execute();
+        
+        return result instanceof Number ? ((Number) result).longValue() : 0;
+    }
+    
+    /**
+     * Returns the given pooled database to the pool and restores the database the current thread used before.
+     *
+     * @param db the database
+     * @param previous the previous database of the current thread, {@literal null} if there was none
+     */
+    private void close(OObjectDatabaseTx db, ODatabaseRecord previous) {
+        if (!db.isClosed()) {
+            db.close();
+        }
+        
+        if (previous == null) {
+            ODatabaseRecordThreadLocal.INSTANCE.remove();
+        } else {
+            ODatabaseRecordThreadLocal.INSTANCE.set(previous);
+        }
+    }
+
     public int addCluster(String iClusterName) {
         return dbf.db().addCluster(iClusterName);
     }
@@ -512,6 +670,16 @@ public class OrientObjectTemplate implements OrientObjectOperations {
         return load(new ORecordId(recordId));
     }
 
+    @Override
+    public boolean exists(ORID recordId) {
+        // Records created in the current transaction are not stored yet
+        if (!recordId.isPersistent()) {
+            return load(recordId) != null;
+        }
+        
+        return dbf.db().getStorage().getRecordMetadata(recordId) != null;
+    }
+
     public <RET> RET load(ORID iRecordId, String iFetchPlan) {
         return dbf.db().load(iRecordId, iFetchPlan);
     }
@@ -537,6 +705,57 @@ public class OrientObjectTemplate implements OrientObjectOperations {
         return dbf.db().save(iPojo, iClusterName);
     }
 
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.core.OrientOperations#saveAll(java.lang.Iterable, java.lang.String)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <RET> List<RET> saveAll(Iterable<?> entities, String clusterName) {
+        final OObjectDatabaseTx db = dbf.db();
+        List<RET> result = new ArrayList<RET>();
+        
+        for (Object entity : entities) {
+            result.add((RET) (clusterName == null ? db.save(entity) : db.save(entity, clusterName)));
+        }
+        
+        return result;
+    }
+
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.core.OrientOperations#insertAll(java.lang.Iterable, java.lang.String)
+     */
+    @Override
+    public void insertAll(Iterable<?> entities, String clusterName) {
+        final OObjectDatabaseTx db = dbf.db();
+        Set<String> sources = new HashSet<String>();
+        
+        db.declareIntent(new OIntentMassiveInsert());
+        
+        try {
+            for (Object entity : entities) {
+                Object saved = clusterName == null ? db.save(entity) : db.save(entity, clusterName);
+                
+                addSources(sources, db.getRecordByUserObject(saved, false));
+            }
+        } finally {
+            db.declareIntent(null);
+            
+            // The intent unregisters the hooks, so the listeners of the factory are notified of the writes explicitly
+            dbf.notifyWritten(sources);
+        }
+    }
+    
+    private void addSources(Set<String> sources, ODocument record) {
+        for (OClass type = record.getSchemaClass(); type != null; type = type.getSuperClass()) {
+            sources.add(type.getName());
+        }
+        
+        int clusterId = record.getIdentity().getClusterId();
+        
+        if (clusterId >= 0) {
+            sources.add(dbf.db().getClusterNameById(clusterId));
+        }
+    }
 
     public <RET> RET save(Object iPojo, String iClusterName,
             OPERATION_MODE iMode, boolean iForceCreate,
@@ -603,6 +822,7 @@ public class OrientObjectTemplate implements OrientObjectOperations {
         return dbf.db().getVersion(iPojo);
     }
 
+    @Override
     public ORID getIdentity(Object iPojo) {
         return dbf.db().getIdentity(iPojo);
     }
@@ -738,8 +958,31 @@ public class OrientObjectTemplate implements OrientObjectOperations {
         return result;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public <RET> RET getEntity(OIdentifiable record, String fetchPlan, DetachMode detachMode) {
+        RET result = (RET) getUserObjectByRecord(record, fetchPlan);
+        
+        switch (detachMode) {
+            case ENTITY: return dbf.db().detach(result, true);
+            case ALL: return dbf.db().detachAll(result, true);
+            case NONE:
+        }
+        
+        return result;
+    }
+
     @Override
     public Long count(OSQLQuery<?> query, Object... values) {
-        return ((ODocument) dbf.db().query(query, values).get(0)).field("count");
+        List<ODocument> result = dbf.db().query(query, values);
+        
+        if (result.isEmpty()) {
+            return 0L;
+        }
+        
+        ODocument document = result.get(0);
+        Object count = document.containsField("count") ? document.field("count") : document.fieldValues()[0];
+        
+        return ((Number) count).longValue();
     }
 }
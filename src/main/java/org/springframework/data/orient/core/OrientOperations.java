@@ -3,9 +3,12 @@ package org.springframework.data.orient.core;
 import java.util.List;
 
 import org.springframework.data.orient.object.repository.DetachMode;
+import org.springframework.orm.orient.AbstractOrientDatabaseFactory;
 
+import com.orientechnologies.orient.core.command.OCommandRequest;
 import com.orientechnologies.orient.core.db.ODatabaseComplex;
 import com.orientechnologies.orient.core.db.object.ODatabaseObject;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.query.OQuery;
 import com.orientechnologies.orient.core.record.ORecordInternal;
@@ -18,10 +21,16 @@ public interface OrientOperations {
     
     <RET> RET load(String recordId);
     
+    boolean exists(ORID recordId);
+    
     <RET> RET save(Object entity);
     
     <RET> RET save(Object iPojo, String iClusterName);
     
+    <RET> List<RET> saveAll(Iterable<?> entities, String clusterName);
+    
+    void insertAll(Iterable<?> entities, String clusterName);
+    
     Long count(OSQLQuery<?> query, Object... values);
     
     long countClass(String iClassName);
@@ -36,12 +45,26 @@ public interface OrientOperations {
     
     <RET extends List<?>> RET query(OQuery<?> query, DetachMode detachMode, Object... values);
     
+    <RET extends OCommandRequest> RET command(OCommandRequest command);
+    
+    <RET> RET getEntity(OIdentifiable record, String fetchPlan, DetachMode detachMode);
+    
     ODatabaseComplex<Object> delete(ORecordInternal<?> iRecord);
     
     ODatabaseObject delete(ORID iRID);
     
     ODatabaseObject delete(Object iPojo);
     
+    int deleteAll(Iterable<? extends ORID> rids);
+    
+    long deleteAllOfClass(String className);
+    
+    long deleteAllOfCluster(String clusterName);
+    
+    long truncateClass(String className);
+    
+    long truncateCluster(String clusterName);
+    
     <RET> OObjectIteratorClass<RET> browseClass(Class<RET> iClusterClass);
     
     int getDefaultClusterId(Class<?> domainClass);
@@ -49,4 +72,8 @@ public interface OrientOperations {
     String getClusterNameById(int iClusterId);
     
     String getClusterNameByRid(String rid);
+    
+    ORID getIdentity(Object entity);
+    
+    AbstractOrientDatabaseFactory<?> getDatabaseFactory();
 }
@@ -0,0 +1,413 @@
+package org.springframework.data.orient.core;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.orm.orient.AbstractOrientDatabaseFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+import com.orientechnologies.orient.core.db.ODatabaseComplex;
+import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
+import com.orientechnologies.orient.core.id.ORID;
+
+import javassist.util.proxy.Proxy;
+
+/**
+ * Buffers the updates of persistent entities and writes them in the background. The updates are keyed by the record
+ * id, so repeated updates of the same record between two flushes collapse into a single write of the latest entity.
+ * The buffer is flushed every {@code flushInterval} milliseconds and whenever {@code maxBatchSize} records are pending,
+ * in one transaction per batch on a pooled connection of its own. New entities are saved immediately, since their
+ * record ids are assigned by the save.
+ * <p>
+ * The buffered entities are saved later on another connection, so the buffer keeps a copy of each entity taken when it is
+ * saved. Attached entities are detached with all their links, detached ones are copied field by field, so objects
+ * they reference must not be changed until the buffer is flushed. Reads do not see the pending updates, and buffered
+ * updates of versioned entities fail when the record was changed after the entity was read. Failed batches are passed
+ * to the {@link FailureCallback}.
+ *
+ * @author Dzmitry_Naskou
+ */
+public class OrientWriteBehindBuffer implements InitializingBean, DisposableBean {
+
+    /** The logger. */
+    private static final Logger log = LoggerFactory.getLogger(OrientWriteBehindBuffer.class);
+    
+    /** The default interval in milliseconds the buffer is flushed at. */
+    public static final long DEFAULT_FLUSH_INTERVAL = 1000;
+    
+    /** The default number of pending records triggering a flush and written in one transaction. */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+    
+    /** The default maximum number of pending records. */
+    public static final int DEFAULT_CAPACITY = 10000;
+    
+    /** The orient operations. */
+    private final OrientOperations operations;
+    
+    /** The pending entities by record id in order of their first update. */
+    private final Map<ORID, Object> pending = new LinkedHashMap<ORID, Object>();
+    
+    /** The lock guarding the pending entities. */
+    private final Lock lock = new ReentrantLock();
+    
+    /** Signalled when pending entities are drained. */
+    private final Condition notFull = lock.newCondition();
+    
+    /** Whether a flush triggered by the batch size is scheduled. */
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    
+    /** The interval in milliseconds the buffer is flushed at. */
+    private long flushInterval = DEFAULT_FLUSH_INTERVAL;
+    
+    /** The number of pending records triggering a flush and written in one transaction. */
+    private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    
+    /** The maximum number of pending records, further updates wait for a flush. */
+    private int capacity = DEFAULT_CAPACITY;
+    
+    /** The callback of the failed batches, {@literal null} to log them. */
+    private FailureCallback failureCallback;
+    
+    /** The flusher, writing all the batches. */
+    private volatile ScheduledExecutorService flusher;
+    
+    /** Whether the buffer is closed, so the entities are saved immediately. Guarded by the lock. */
+    private boolean closed;
+    
+    /**
+     * Instantiates a new {@link OrientWriteBehindBuffer}.
+     *
+     * @param operations the orient operations to save the entities with
+     */
+    public OrientWriteBehindBuffer(OrientOperations operations) {
+        super();
+        this.operations = operations;
+    }
+    
+    /**
+     * Sets the interval in milliseconds the buffer is flushed at.
+     *
+     * @param flushInterval the new flush interval
+     */
+    public void setFlushInterval(long flushInterval) {
+        Assert.isTrue(flushInterval > 0, "Flush interval must be positive!");
+        this.flushInterval = flushInterval;
+    }
+    
+    /**
+     * Sets the number of pending records triggering a flush and written in one transaction.
+     *
+     * @param maxBatchSize the new maximum batch size
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+        Assert.isTrue(maxBatchSize > 0, "Batch size must be positive!");
+        this.maxBatchSize = maxBatchSize;
+    }
+    
+    /**
+     * Sets the maximum number of pending records. Updates of further records wait until the buffer is flushed.
+     *
+     * @param capacity the new capacity
+     */
+    public void setCapacity(int capacity) {
+        Assert.isTrue(capacity > 0, "Capacity must be positive!");
+        this.capacity = capacity;
+    }
+    
+    /**
+     * Sets the callback of the batches that could not be written.
+     *
+     * @param failureCallback the new failure callback, {@literal null} to log the failures
+     */
+    public void setFailureCallback(FailureCallback failureCallback) {
+        this.failureCallback = failureCallback;
+    }
+    
+    /* (non-Javadoc)
+     * @see org.springframework.beans.factory.InitializingBean#afterPropertiesSet()
+     */
+    @Override
+    public void afterPropertiesSet() {
+        start();
+    }
+    
+    /**
+     * Starts flushing the buffer periodically.
+     */
+    public synchronized void start() {
+        if (flusher != null) {
+            return;
+        }
+        
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("orient-write-behind-");
+        threadFactory.setDaemon(true);
+        
+        flusher = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        flusher.scheduleWithFixedDelay(new Runnable() {
+            
+            @Override
+            public void run() {
+                writePending();
+            }
+        }, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Saves the given entity. Updates of persistent entities are buffered, other entities are saved immediately.
+     *
+     * @param entity the entity
+     * @return the saved entity, the given one if the update is buffered
+     */
+    public <S> S save(S entity) {
+        ORID rid = operations.getIdentity(entity);
+        
+        if (rid == null || !rid.isPersistent() || !buffer(rid, snapshot(entity))) {
+            return operations.save(entity);
+        }
+        
+        return entity;
+    }
+    
+    /**
+     * Gets the number of pending records.
+     *
+     * @return the number of pending records
+     */
+    public int getPendingCount() {
+        lock.lock();
+        
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Writes all the pending entities and waits until they are written.
+     */
+    public void flush() {
+        ScheduledExecutorService current = flusher;
+        
+        if (current == null || current.isShutdown()) {
+            return;
+        }
+        
+        try {
+            current.submit(new Callable<Void>() {
+                
+                @Override
+                public Void call() {
+                    writePending();
+                    
+                    return null;
+                }
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while flushing the write-behind buffer!", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not flush the write-behind buffer!", e.getCause());
+        }
+    }
+    
+    /* (non-Javadoc)
+     * @see org.springframework.beans.factory.DisposableBean#destroy()
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        lock.lock();
+        
+        try {
+            // From now on the entities are saved immediately, also by the saves waiting for a flush
+            closed = true;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        
+        flush();
+        
+        ScheduledExecutorService current = flusher;
+        
+        if (current != null) {
+            current.shutdown();
+            current.awaitTermination(flushInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    /**
+     * Buffers the given entity, waiting for a flush while the buffer is full.
+     *
+     * @param rid the record id of the entity
+     * @param entity the entity
+     * @return true, if the entity is buffered, false if the buffer is not started or closed
+     */
+    private boolean buffer(ORID rid, Object entity) {
+        lock.lock();
+        
+        try {
+            while (!closed && flusher != null && !pending.containsKey(rid) && pending.size() >= capacity) {
+                requestFlush();
+                notFull.await();
+            }
+            
+            if (closed || flusher == null) {
+                return false;
+            }
+            
+            pending.put(rid, entity);
+            
+            if (pending.size() >= maxBatchSize) {
+                requestFlush();
+            }
+            
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the write-behind buffer to be flushed!", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Takes the copy of the given entity to buffer, so later changes of the caller do not race with the flush.
+     * Attached entities are bound to the connection of the caller, so they are detached with all their links.
+     *
+     * @param entity the entity
+     * @return the copy
+     */
+    private Object snapshot(Object entity) {
+        if (entity instanceof Proxy) {
+            Assert.isInstanceOf(OrientObjectOperations.class, operations, "Attached entities can not be buffered!");
+            
+            return ((OrientObjectOperations) operations).detachAll(entity, true);
+        }
+        
+        Object copy = BeanUtils.instantiateClass(entity.getClass());
+        ReflectionUtils.shallowCopyFieldState(entity, copy);
+        
+        return copy;
+    }
+    
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            flusher.execute(new Runnable() {
+                
+                @Override
+                public void run() {
+                    flushRequested.set(false);
+                    writePending();
+                }
+            });
+        }
+    }
+    
+    /**
+     * Writes the pending entities in batches. Called on the flusher thread only, so the batches are written in order.
+     */
+    private void writePending() {
+        List<Object> batch;
+        
+        while (!(batch = drain()).isEmpty()) {
+            write(batch);
+        }
+    }
+    
+    private List<Object> drain() {
+        lock.lock();
+        
+        try {
+            List<Object> batch = new ArrayList<Object>(Math.min(pending.size(), maxBatchSize));
+            Iterator<Object> iterator = pending.values().iterator();
+            
+            while (iterator.hasNext() && batch.size() < maxBatchSize) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+            
+            notFull.signalAll();
+            
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Writes the given batch in one transaction on a pooled connection. The connection is bound as the transactional
+     * resource of the factory, so the saves of transactional operations take part in the transaction.
+     *
+     * @param batch the batch
+     */
+    private void write(List<Object> batch) {
+        AbstractOrientDatabaseFactory<?> dbf = operations.getDatabaseFactory();
+        ODatabaseComplex<?> db = dbf.openDatabase();
+        TransactionSynchronizationManager.bindResource(dbf, db);
+        
+        try {
+            db.begin();
+            
+            for (Object entity : batch) {
+                operations.save(entity);
+            }
+            
+            db.commit();
+        } catch (RuntimeException e) {
+            if (db.getTransaction().isActive()) {
+                db.rollback();
+            }
+            
+            if (failureCallback != null) {
+                failureCallback.onFailure(batch, e);
+            } else {
+                log.error("Could not write {} buffered entities", batch.size(), e);
+            }
+        } finally {
+            if (TransactionSynchronizationManager.hasResource(dbf)) {
+                TransactionSynchronizationManager.unbindResource(dbf);
+            }
+            
+            if (!db.isClosed()) {
+                db.close();
+            }
+            
+            ODatabaseRecordThreadLocal.INSTANCE.remove();
+        }
+    }
+    
+    /**
+     * The callback of the batches the buffer could not write.
+     */
+    public interface FailureCallback {
+        
+        /**
+         * Called when the given batch could not be written. The batch was rolled back.
+         *
+         * @param entities the entities of the batch
+         * @param failure the failure
+         */
+        void onFailure(List<Object> entities, Throwable failure);
+    }
+}
@@ -0,0 +1,20 @@
+package org.springframework.data.orient.repository;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * An {@link Iterator} over the results of a query that holds resources until it is exhausted or closed. Closing the
+ * iterator before it is exhausted cancels the query.
+ *
+ * @author Dzmitry_Naskou
+ * @param <T> the type of the elements
+ */
+public interface CloseableIterator<T> extends Iterator<T>, Closeable {
+
+    /* (non-Javadoc)
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,89 @@
+package org.springframework.data.orient.repository;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.springframework.util.Assert;
+
+/**
+ * The position to continue a keyset paginated query after: the sort key values and the record id of the last
+ * record of the previous page.
+ * 
+ * @author Dzmitry_Naskou
+ * @see KeysetPageRequest
+ */
+public final class ContinuationToken implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    
+    /** The record id. */
+    private final String rid;
+    
+    /** The sort key values. */
+    private final Object[] values;
+    
+    /**
+     * Instantiates a new {@link ContinuationToken}.
+     *
+     * @param rid the record id of the last record
+     * @param values the sort key values of the last record in order of the sort
+     */
+    public ContinuationToken(String rid, Object... values) {
+        super();
+        Assert.hasText(rid, "Record id must not be empty!");
+        this.rid = rid;
+        this.values = values == null ? new Object[0] : values.clone();
+    }
+    
+    /**
+     * Gets the record id of the last record.
+     *
+     * @return the record id
+     */
+    public String getRid() {
+        return rid;
+    }
+    
+    /**
+     * Gets the sort key values of the last record in order of the sort.
+     *
+     * @return the values
+     */
+    public Object[] getValues() {
+        return values.clone();
+    }
+    
+    /* (non-Javadoc)
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        
+        if (!(obj instanceof ContinuationToken)) {
+            return false;
+        }
+        
+        ContinuationToken that = (ContinuationToken) obj;
+        
+        return rid.equals(that.rid) && Arrays.equals(values, that.values);
+    }
+    
+    /* (non-Javadoc)
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return 31 * rid.hashCode() + Arrays.hashCode(values);
+    }
+    
+    /* (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return String.format("Continuation after %s: %s", rid, Arrays.toString(values));
+    }
+}
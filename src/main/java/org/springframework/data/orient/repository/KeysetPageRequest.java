@@ -0,0 +1,106 @@
+package org.springframework.data.orient.repository;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * {@link Pageable} for keyset (seek) pagination. Instead of skipping the records of the previous pages the query
+ * continues after the {@link ContinuationToken} of the previous page, so every page costs the same as the first one
+ * on indexed sorts. The record id is always used as the last sort key to make the order unique.
+ * <p>
+ * The pageable of a page returned for a {@link KeysetPageRequest} carries the token of its last record, so
+ * {@link #next()} continues right after it. Pages requested without a token fall back to skipping the records.
+ * 
+ * @author Dzmitry_Naskou
+ */
+public class KeysetPageRequest extends PageRequest {
+
+    private static final long serialVersionUID = 1L;
+    
+    /** The token to continue after. */
+    private final ContinuationToken token;
+    
+    /** The token of the last record of this page, if already known. */
+    private final ContinuationToken nextToken;
+    
+    /**
+     * Instantiates a new {@link KeysetPageRequest} for the first page.
+     *
+     * @param size the size of the page
+     * @param sort the sort
+     */
+    public KeysetPageRequest(int size, Sort sort) {
+        this(0, size, sort, null);
+    }
+    
+    /**
+     * Instantiates a new {@link KeysetPageRequest} continuing after the given token.
+     *
+     * @param page the zero-based page index
+     * @param size the size of the page
+     * @param sort the sort
+     * @param token the token to continue after, can be {@literal null}
+     */
+    public KeysetPageRequest(int page, int size, Sort sort, ContinuationToken token) {
+        this(page, size, sort, token, null);
+    }
+    
+    private KeysetPageRequest(int page, int size, Sort sort, ContinuationToken token, ContinuationToken nextToken) {
+        super(page, size, sort);
+        this.token = token;
+        this.nextToken = nextToken;
+    }
+    
+    /**
+     * Gets the token to continue after.
+     *
+     * @return the token or {@literal null} if the page is not continued
+     */
+    public ContinuationToken getToken() {
+        return token;
+    }
+    
+    /**
+     * Gets the token of the last record of this page.
+     *
+     * @return the next token or {@literal null} if not known
+     */
+    public ContinuationToken getNextToken() {
+        return nextToken;
+    }
+    
+    /**
+     * Creates a copy of this request aware of the token of the last record of the page.
+     *
+     * @param nextToken the token of the last record
+     * @return the keyset page request
+     */
+    public KeysetPageRequest withNextToken(ContinuationToken nextToken) {
+        return new KeysetPageRequest(getPageNumber(), getPageSize(), getSort(), token, nextToken);
+    }
+    
+    /* (non-Javadoc)
+     * @see org.springframework.data.domain.PageRequest#next()
+     */
+    @Override
+    public Pageable next() {
+        return new KeysetPageRequest(getPageNumber() + 1, getPageSize(), getSort(), nextToken);
+    }
+    
+    /* (non-Javadoc)
+     * @see org.springframework.data.domain.PageRequest#previousOrFirst()
+     */
+    @Override
+    public Pageable previousOrFirst() {
+        return hasPrevious() ? new KeysetPageRequest(getPageNumber() - 1, getPageSize(), getSort(), null) : first();
+    }
+    
+    /* (non-Javadoc)
+     * @see org.springframework.data.domain.PageRequest#first()
+     */
+    @Override
+    public Pageable first() {
+        return new KeysetPageRequest(0, getPageSize(), getSort(), null);
+    }
+}
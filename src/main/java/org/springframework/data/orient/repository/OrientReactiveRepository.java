@@ -0,0 +1,63 @@
+package org.springframework.data.orient.repository;
+
+import org.reactivestreams.Publisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.Repository;
+
+/**
+ * The reactive Orient specific extension of {@link org.springframework.data.repository.Repository}. All the methods,
+ * including the query methods, return Reactive Streams {@link Publisher}s that run their queries on pooled connections
+ * once subscribed and emit the entities as OrientDB produces them, honoring the demand of the subscriber.
+ *
+ * @author Dzmitry_Naskou
+ * @param <T> the generic type to handle
+ */
+@NoRepositoryBean
+public interface OrientReactiveRepository<T> extends Repository<T, String> {
+
+    /**
+     * Retrieves an entity by its id.
+     *
+     * @param id the record id
+     * @return the publisher of the entity
+     */
+    Publisher<T> findOne(String id);
+    
+    /**
+     * Returns all instances of the type.
+     *
+     * @return the publisher of the entities
+     */
+    Publisher<T> findAll();
+    
+    /**
+     * Returns all instances of the type sorted by the given options.
+     *
+     * @param sort the sort
+     * @return the publisher of the entities
+     */
+    Publisher<T> findAll(Sort sort);
+    
+    /**
+     * Returns all instances of the type with the given source.
+     *
+     * @param source the source
+     * @return the publisher of the entities
+     */
+    Publisher<T> findAll(OrientSource source);
+    
+    /**
+     * Returns the number of entities available.
+     *
+     * @return the publisher of the number of entities
+     */
+    Publisher<Long> count();
+    
+    /**
+     * Gets the domain class for repository.
+     *
+     * @return the domain class
+     */
+    Class<T> getDomainClass();
+}
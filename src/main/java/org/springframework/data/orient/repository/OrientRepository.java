@@ -25,6 +25,34 @@ public interface OrientRepository<T> extends PagingAndSortingRepository<T, Strin
      */
     <S extends T> S save(S entity, String cluster);
     
+    /**
+     * Saves all given entities to the given cluster in a single transaction.
+     *
+     * @param entities the entities
+     * @param cluster the cluster name
+     * @return the saved entities
+     */
+    <S extends T> Iterable<S> save(Iterable<S> entities, String cluster);
+    
+    /**
+     * Saves all given entities without collecting the saved instances, so the entities of large imports can be garbage
+     * collected as soon as they are written. Within a transaction the entities are saved like {@link #save(Iterable)}.
+     * Otherwise every {@code batchSize} entities are written in a new transaction of their own with the massive insert
+     * intent, so a failure rolls back the failed batch only. The intent disables the record hooks and validation
+     * while the batch is written, the query caches of the written classes and clusters are cleared afterwards.
+     *
+     * @param entities the entities
+     */
+    void saveBatch(Iterable<? extends T> entities);
+    
+    /**
+     * Saves all given entities to the given cluster like {@link #saveBatch(Iterable)}.
+     *
+     * @param entities the entities
+     * @param cluster the cluster name
+     */
+    void saveBatch(Iterable<? extends T> entities, String cluster);
+    
     /**
      * Returns the number of entities available with the given cluster.
      * 
@@ -97,16 +125,34 @@ public interface OrientRepository<T> extends PagingAndSortingRepository<T, Strin
     List<T> findAll(Iterable<String> ids);
     
     /**
-     * Deletes all entities managed by the repository for the given cluster.
+     * Deletes all entities managed by the repository for the given cluster with a single {@code DELETE} command
+     * within the current transaction.
      *
      * @param cluster the cluster name
      */
     void deleteAll(String cluster);
     
     /**
-     * Deletes all entities with the given type managed by the repository.
+     * Deletes all entities with the given type managed by the repository, like {@link #deleteAll(String)} for the
+     * class of the type.
      *
      * @param domainClass the domain class
      */
     void deleteAll(Class<? extends T> domainClass);
+    
+    /**
+     * Deletes all entities managed by the repository by truncating their class. Truncating is not transactional, so
+     * it must not be called within a transaction. The records are deleted with a single {@code DELETE} command instead
+     * when hooks other than the ones of OrientDB are registered with the database, since truncating does not fire
+     * them, or when the class has subclasses, since truncating is not polymorphic.
+     */
+    void truncate();
+    
+    /**
+     * Deletes all entities managed by the repository for the given cluster by truncating the cluster, like
+     * {@link #truncate()}.
+     *
+     * @param cluster the cluster name
+     */
+    void truncate(String cluster);
 }
@@ -0,0 +1,37 @@
+package org.springframework.data.orient.repository.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the detached results of the annotated query method by its arguments. The cache of a method is cleared
+ * whenever a record of the class or cluster the method queries is created, updated or deleted, and once more when the
+ * transaction writing it commits. Every caller gets copies of the cached lists and entities, the objects the entities
+ * link to are shared and must not be changed. Methods returning pages, slices, streams or futures can not be cached.
+ *
+ * @author Dzmitry_Naskou
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.ANNOTATION_TYPE })
+public @interface CachedQuery {
+
+    /**
+     * The time to live of the cached results, non-positive values mean the results only expire on writes.
+     */
+    long ttl() default 60;
+    
+    /**
+     * The time unit of {@link #ttl()}.
+     */
+    TimeUnit timeUnit() default TimeUnit.SECONDS;
+    
+    /**
+     * The maximum number of cached results, the least recently used results are evicted first.
+     */
+    int maxEntries() default 1000;
+}
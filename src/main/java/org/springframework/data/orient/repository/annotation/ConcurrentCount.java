@@ -0,0 +1,23 @@
+package org.springframework.data.orient.repository.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Enables or disables running the count query of a paged query method concurrently with its content query. The count
+ * query runs on a separate pooled connection, which does not see the changes of a running transaction, so pages
+ * requested within a transaction are counted sequentially on the connection of the transaction.
+ *
+ * @author Dzmitry_Naskou
+ * @see org.springframework.data.orient.repository.config.EnableOrientRepositories#concurrentCount()
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.ANNOTATION_TYPE })
+public @interface ConcurrentCount {
+
+    boolean value() default true;
+}
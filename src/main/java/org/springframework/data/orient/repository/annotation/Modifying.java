@@ -0,0 +1,20 @@
+package org.springframework.data.orient.repository.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates a method annotated with {@link Query} runs a modifying statement, e.g. {@code update} or {@code delete},
+ * instead of selecting records. The statement is executed on the server as a command and the method returns the number
+ * of affected records, or nothing if declared {@code void}.
+ *
+ * @author Dzmitry_Naskou
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.ANNOTATION_TYPE })
+public @interface Modifying {
+}
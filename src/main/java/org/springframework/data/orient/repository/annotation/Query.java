@@ -22,8 +22,14 @@ public @interface Query {
     String value() default "";
     
     /**
-     * Defines a special count query that shall be used for pagination queries to lookup the total number of elements for
-     * a page. If non is configured we will derive the count query from the method name.
+     * Defines whether the query returns the number of records instead of the records themselves.
      */
     boolean count() default false;
+    
+    /**
+     * Defines a special count query that shall be used for pagination queries to lookup the total number of elements for
+     * a page. If non is configured we will derive the count query from the query by replacing its projection with
+     * {@code count(*)}.
+     */
+    String countQuery() default "";
 }
@@ -10,6 +10,8 @@ import java.lang.annotation.Target;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.context.annotation.ComponentScan.Filter;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.orient.repository.query.OrientQuerySettings;
+import org.springframework.data.orient.repository.query.QueryPlanVerification;
 import org.springframework.data.orient.repository.support.OrientRepositoryFactoryBean;
 import org.springframework.data.repository.query.QueryLookupStrategy;
 import org.springframework.data.repository.query.QueryLookupStrategy.Key;
@@ -81,4 +83,70 @@ public @interface EnableOrientRepositories {
      * @return
      */
     Class<?> repositoryFactoryBeanClass() default OrientRepositoryFactoryBean.class;
+
+    /**
+     * Returns the name of the {@link java.util.concurrent.Executor} bean to run queries on pooled connections with.
+     * Defaults to an executor creating a new daemon thread for each query.
+     * 
+     * @return
+     */
+    String executorRef() default "";
+
+    /**
+     * Returns whether paged query methods run their count query concurrently with the content query on a separate
+     * pooled connection. Can be overridden per method with
+     * {@link org.springframework.data.orient.repository.annotation.ConcurrentCount}. Defaults to {@literal false}.
+     * 
+     * @return
+     */
+    boolean concurrentCount() default false;
+
+    /**
+     * Returns how the plans of the query methods are verified when the repositories are created. Verification runs
+     * {@code EXPLAIN} for every selecting query method with placeholder arguments and reports the methods scanning whole
+     * classes instead of using an index. Defaults to {@link QueryPlanVerification#NONE}.
+     * 
+     * @return
+     */
+    QueryPlanVerification queryPlanVerification() default QueryPlanVerification.NONE;
+
+    /**
+     * Returns the name of the {@link org.springframework.data.orient.repository.query.QueryMetrics} bean the executions
+     * of the repository methods are recorded to. Defaults to not recording the executions.
+     * 
+     * @return
+     */
+    String metricsRef() default "";
+
+    /**
+     * Returns the execution time in milliseconds above which repository methods are logged with their query and
+     * arguments. Defaults to {@literal -1}, i.e. slow queries are not logged.
+     * 
+     * @return
+     */
+    long slowQueryThreshold() default -1;
+
+    /**
+     * Returns the maximum number of records the batch operations of the repositories, e.g. {@code findAll(Iterable)},
+     * read or write with a single statement. Defaults to {@literal 1000}.
+     * 
+     * @return
+     */
+    int batchSize() default OrientQuerySettings.DEFAULT_BATCH_SIZE;
+
+    /**
+     * Returns the name of the {@link org.springframework.data.orient.core.OrientWriteBehindBuffer} bean the repositories
+     * write the updates of persistent entities behind with. Defaults to writing the updates immediately.
+     * 
+     * @return
+     */
+    String writeBehindBufferRef() default "";
+
+    /**
+     * Returns the name of the {@link org.springframework.transaction.PlatformTransactionManager} bean the repositories
+     * run their transactions with, e.g. the chunks of the batch operations. Defaults to {@literal transactionManager}.
+     * 
+     * @return
+     */
+    String transactionManagerRef() default "";
 }
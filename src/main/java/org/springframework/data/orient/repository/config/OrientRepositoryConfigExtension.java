@@ -1,8 +1,12 @@
 package org.springframework.data.orient.repository.config;
 
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.core.annotation.AnnotationAttributes;
 import org.springframework.data.orient.repository.support.OrientRepositoryFactoryBean;
+import org.springframework.data.repository.config.AnnotationRepositoryConfigurationSource;
 import org.springframework.data.repository.config.RepositoryConfigurationExtension;
 import org.springframework.data.repository.config.RepositoryConfigurationExtensionSupport;
+import org.springframework.util.StringUtils;
 
 /**
  * {@link RepositoryConfigurationExtension} for OrientDB.
@@ -25,4 +29,41 @@ public class OrientRepositoryConfigExtension extends RepositoryConfigurationExte
     protected String getModulePrefix() {
         return "orient";
     }
+
+    /* (non-Javadoc)
+     * @see org.springframework.data.repository.config.RepositoryConfigurationExtensionSupport#postProcess(org.springframework.beans.factory.support.BeanDefinitionBuilder, org.springframework.data.repository.config.AnnotationRepositoryConfigurationSource)
+     */
+    @Override
+    public void postProcess(BeanDefinitionBuilder builder, AnnotationRepositoryConfigurationSource config) {
+        AnnotationAttributes attributes = config.getAttributes();
+        
+        builder.addPropertyValue("concurrentCount", attributes.getBoolean("concurrentCount"));
+        builder.addPropertyValue("queryPlanVerification", attributes.getEnum("queryPlanVerification"));
+        builder.addPropertyValue("slowQueryThreshold", attributes.getNumber("slowQueryThreshold"));
+        builder.addPropertyValue("batchSize", attributes.getNumber("batchSize"));
+        
+        String executorRef = attributes.getString("executorRef");
+        
+        if (StringUtils.hasText(executorRef)) {
+            builder.addPropertyReference("executor", executorRef);
+        }
+        
+        String metricsRef = attributes.getString("metricsRef");
+        
+        if (StringUtils.hasText(metricsRef)) {
+            builder.addPropertyReference("metrics", metricsRef);
+        }
+        
+        String writeBehindBufferRef = attributes.getString("writeBehindBufferRef");
+        
+        if (StringUtils.hasText(writeBehindBufferRef)) {
+            builder.addPropertyReference("writeBehindBuffer", writeBehindBufferRef);
+        }
+        
+        String transactionManagerRef = attributes.getString("transactionManagerRef");
+        
+        if (StringUtils.hasText(transactionManagerRef)) {
+            builder.addPropertyValue("transactionManager", transactionManagerRef);
+        }
+    }
 }
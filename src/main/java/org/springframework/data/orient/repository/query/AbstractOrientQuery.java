@@ -1,13 +1,34 @@
 package org.springframework.data.orient.repository.query;
 
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.orient.core.OrientOperations;
 import org.springframework.data.orient.object.repository.DetachMode;
+import org.springframework.data.orient.repository.annotation.CachedQuery;
+import org.springframework.data.orient.repository.annotation.Cluster;
+import org.springframework.data.orient.repository.annotation.Source;
+import org.springframework.data.orient.repository.query.OrientQueryExecution.AsyncExecution;
+import org.springframework.data.orient.repository.query.OrientQueryExecution.CachedExecution;
 import org.springframework.data.orient.repository.query.OrientQueryExecution.CollectionExecution;
+import org.springframework.data.orient.repository.query.OrientQueryExecution.ConcurrentPagedExecution;
 import org.springframework.data.orient.repository.query.OrientQueryExecution.CountExecution;
+import org.springframework.data.orient.repository.query.OrientQueryExecution.ExistsExecution;
+import org.springframework.data.orient.repository.query.OrientQueryExecution.InstrumentedExecution;
+import org.springframework.data.orient.repository.query.OrientQueryExecution.ModifyingExecution;
 import org.springframework.data.orient.repository.query.OrientQueryExecution.PagedExecution;
+import org.springframework.data.orient.repository.query.OrientQueryExecution.ProjectingExecution;
+import org.springframework.data.orient.repository.query.OrientQueryExecution.PublisherExecution;
 import org.springframework.data.orient.repository.query.OrientQueryExecution.SingleEntityExecution;
+import org.springframework.data.orient.repository.query.OrientQueryExecution.SliceExecution;
+import org.springframework.data.orient.repository.query.OrientQueryExecution.StreamExecution;
 import org.springframework.data.repository.query.RepositoryQuery;
 
+import com.orientechnologies.orient.core.sql.OCommandSQL;
 import com.orientechnologies.orient.core.sql.query.OSQLQuery;
 
 /**
@@ -20,6 +41,15 @@ public abstract class AbstractOrientQuery implements RepositoryQuery {
     
     /** The object operations. */
     private final OrientOperations operations;
+    
+    /** The query settings. */
+    private final OrientQuerySettings settings;
+    
+    /** The result cache, {@literal null} if the results are not cached. */
+    private final QueryResultCache cache;
+    
+    /** The execution strategy, resolved on first use. */
+    private volatile OrientQueryExecution execution;
 
     /**
      * Instantiates a new {@link AbstractOrientQuery}.
@@ -28,9 +58,40 @@ public abstract class AbstractOrientQuery implements RepositoryQuery {
      * @param operations the orient operations
      */
     public AbstractOrientQuery(OrientQueryMethod method, OrientOperations operations) {
+        this(method, operations, new OrientQuerySettings());
+    }
+    
+    /**
+     * Instantiates a new {@link AbstractOrientQuery}.
+     *
+     * @param method the query method
+     * @param operations the orient operations
+     * @param settings the query settings
+     */
+    public AbstractOrientQuery(OrientQueryMethod method, OrientOperations operations, OrientQuerySettings settings) {
         super();
         this.method = method;
         this.operations = operations;
+        this.settings = settings;
+        this.cache = createCache();
+        
+        if (method.getProjection() != null && (method.isStreamQuery() || method.isPublisherQuery() || method.isAsyncQuery())) {
+            throw new IllegalStateException(String.format("Results of method %s can not be projected!", method));
+        }
+        
+        // A plain iterator gives the caller no way to cancel the query holding a pooled connection
+        if (Iterator.class.equals(method.getMethod().getReturnType())) {
+            throw new IllegalStateException(String.format("Method %s must return a CloseableIterator instead of an Iterator!", method));
+        }
+        
+        // Spring Data Commons only accepts a Pageable parameter of methods declaring a Page, Slice or List directly
+        if (method.isAsyncQuery() && Slice.class.isAssignableFrom(method.getAsyncResultType())) {
+            throw new IllegalStateException(String.format("Method %s can not return a page or a slice asynchronously!", method));
+        }
+        
+        if ((method.isJavaStreamQuery() || method.isCompletableFutureQuery()) && !Java8Support.isPresent()) {
+            throw new IllegalStateException(String.format("Method %s requires the library built with the java8 profile!", method));
+        }
     }
 
     /* (non-Javadoc)
@@ -45,7 +106,7 @@ public abstract class AbstractOrientQuery implements RepositoryQuery {
      */
     @Override
     public Object execute(Object[] parameters) {
-        return doExecute(getExecution(), parameters);
+        return doExecute(resolveExecution(), parameters);
     }
     
     /**
@@ -67,7 +128,17 @@ public abstract class AbstractOrientQuery implements RepositoryQuery {
      */
     @SuppressWarnings("rawtypes")
     protected OSQLQuery createQuery(Object[] values) {
-        return applyFetchPlan(doCreateQuery(values));
+        return applyLimit(applyFetchPlan(doCreateQuery(values)), values);
+    }
+    
+    /**
+     * Creates the command of a modifying query method.
+     *
+     * @param values the parameters for query
+     * @return the OSQL command
+     */
+    protected OCommandSQL createCommand(Object[] values) {
+        return new OCommandSQL(doCreateQuery(values).getText());
     }
     
     /**
@@ -81,6 +152,36 @@ public abstract class AbstractOrientQuery implements RepositoryQuery {
         return doCreateCountQuery(values);
     }
     
+    /**
+     * Prepares the values to bind to the query created for the given arguments.
+     *
+     * @param values the parameters for query
+     * @return the values to bind
+     */
+    protected Object[] prepareParameters(Object[] values) {
+        return method.getParameters().getBindableValues(values);
+    }
+    
+    /**
+     * Prepares the values to bind to the count query created for the given arguments.
+     *
+     * @param values the parameters for query
+     * @return the values to bind
+     */
+    protected Object[] prepareCountParameters(Object[] values) {
+        return prepareParameters(values);
+    }
+    
+    /**
+     * Gets the sort the query created for the given {@link Pageable} is ordered by.
+     *
+     * @param pageable the pageable
+     * @return the sort, can be {@literal null}
+     */
+    protected Sort getSort(Pageable pageable) {
+        return pageable == null ? null : pageable.getSort();
+    }
+    
     /**
      * Do create query for specific source.
      *
@@ -107,19 +208,155 @@ public abstract class AbstractOrientQuery implements RepositoryQuery {
     protected OrientQueryExecution getExecution() {
         final OrientParameters parameters = method.getParameters();
         
-        if (method.isCollectionQuery()) {
+        if (method.isPublisherQuery()) {
+            return new PublisherExecution(operations, parameters, settings);
+        } else if (method.isAsyncQuery()) {
+            return new AsyncExecution(operations, parameters, settings.getExecutor(), getAsyncDelegate(method.getAsyncResultType()));
+        } else if (method.isStreamQuery()) {
+            return new StreamExecution(operations, parameters, settings);
+        } else if (isModifyingQuery()) {
+            return new ModifyingExecution(operations, parameters, method.getMethod().getReturnType());
+        } else if (method.isExistsQuery()) {
+            return new ExistsExecution(operations, parameters);
+        } else if (method.isCollectionQuery()) {
             return new CollectionExecution(operations, parameters);
         } else if (isCountQuery()) {
             return new CountExecution(operations, parameters);
+        } else if (method.isPageQuery() && method.isConcurrentCount(settings.isConcurrentCount())) {
+            return new ConcurrentPagedExecution(operations, parameters, settings.getExecutor());
         } else if (method.isPageQuery()) {
             return new PagedExecution(operations, parameters);
-        } else if (method.isQueryForEntity()) {
+        } else if (method.isSliceQuery()) {
+            return new SliceExecution(operations, parameters);
+        } else if (method.isQueryForEntity() || method.getProjection() != null) {
             return new SingleEntityExecution(operations, parameters);
         } 
         
         throw new IllegalArgumentException();
     }
     
+    /**
+     * Gets the execution to run asynchronously for the given type of the result wrapped into the future.
+     *
+     * @param resultType the result type
+     * @return the execution
+     */
+    protected OrientQueryExecution getAsyncDelegate(Class<?> resultType) {
+        final OrientParameters parameters = method.getParameters();
+        
+        if (isModifyingQuery()) {
+            return new ModifyingExecution(operations, parameters, resultType);
+        } else if (method.isExistsQuery()) {
+            return new ExistsExecution(operations, parameters);
+        } else if (Iterable.class.isAssignableFrom(resultType) || resultType.isArray()) {
+            return new CollectionExecution(operations, parameters);
+        } else if (isCountQuery()) {
+            return new CountExecution(operations, parameters);
+        }
+        
+        return new SingleEntityExecution(operations, parameters);
+    }
+    
+    /**
+     * Gets the execution for query resolving it only once per query method.
+     *
+     * @return the execution
+     */
+    protected final OrientQueryExecution resolveExecution() {
+        OrientQueryExecution result = execution;
+        
+        if (result == null) {
+            result = getExecution();
+            
+            if (method.getProjection() != null) {
+                result = new ProjectingExecution(operations, method.getParameters(), result, method.getProjection());
+            }
+            
+            if (cache != null) {
+                result = new CachedExecution(operations, method.getParameters(), result, cache);
+            }
+            
+            if (settings.isInstrumented()) {
+                String name = QueryInstrumentation.getName(method.getRepositoryInterface(), method.getMethod());
+                result = new InstrumentedExecution(operations, method.getParameters(), result, new QueryInstrumentation(settings), name);
+            }
+            
+            execution = result;
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Gets the names of the classes and clusters the query reads, so its cached results are cleared whenever their
+     * records are written.
+     *
+     * @return the source names
+     */
+    protected Set<String> getCachedSources() {
+        Set<String> sources = new HashSet<String>();
+        sources.add(QueryUtils.toSource(method.getEntityInformation().getJavaType()));
+        
+        Source source = method.findAnnotation(Source.class);
+        
+        if (source != null) {
+            sources.add(source.value());
+        }
+        
+        Cluster cluster = method.findAnnotation(Cluster.class);
+        
+        if (cluster != null) {
+            sources.add(cluster.value());
+        }
+        
+        return sources;
+    }
+    
+    /**
+     * Checks if the query modifies records, so it is executed as a command returning the number of affected records.
+     *
+     * @return true, if is modifying query
+     */
+    protected boolean isModifyingQuery() {
+        return false;
+    }
+    
+    /**
+     * Gets the maximum number of results the query method returns, e.g. for {@code findFirst10By} methods.
+     *
+     * @return the maximum number of results or {@literal null} if not limited
+     */
+    protected Integer getMaxResults() {
+        return null;
+    }
+    
+    /**
+     * Returns whether the given {@link Pageable} starts at or after the maximum number of results of the method, so
+     * there is no content to query.
+     *
+     * @param pageable the pageable, can be {@literal null}
+     * @return true, if the page is past the maximum number of results
+     * @see #getMaxResults()
+     */
+    protected boolean isBeyondMaxResults(Pageable pageable) {
+        Integer maxResults = getMaxResults();
+        
+        return pageable != null && maxResults != null && pageable.getOffset() >= maxResults;
+    }
+    
+    /**
+     * Caps the given total number of matching records by the maximum number of results of the method.
+     *
+     * @param total the total number of matching records
+     * @return the total number of results
+     * @see #getMaxResults()
+     */
+    protected long capTotal(long total) {
+        Integer maxResults = getMaxResults();
+        
+        return maxResults == null ? total : Math.min(total, maxResults);
+    }
+    
     /**
      * Checks if is count query.
      *
@@ -127,6 +364,38 @@ public abstract class AbstractOrientQuery implements RepositoryQuery {
      */
     protected abstract boolean isCountQuery();
     
+    /**
+     * Sets the page size of the {@link Pageable} argument as the limit of the query instead of rendering it into the
+     * query text, so the text stays the same for all the pages. Slices fetch one more record to find out whether there
+     * is a next slice. The limit is capped by the results of the method left after the offset of the page, pages past
+     * the maximum number of results are not queried by the executions at all.
+     *
+     * @param query the query
+     * @param values the parameters for query
+     * @return the query
+     * @see #getMaxResults()
+     * @see #isBeyondMaxResults(Pageable)
+     */
+    @SuppressWarnings("rawtypes")
+    private OSQLQuery applyLimit(OSQLQuery query, Object[] values) {
+        Integer maxResults = getMaxResults();
+        Pageable pageable = null;
+        
+        if (method.getParameters().hasPageableParameter()) {
+            pageable = new OrientParametersParameterAccessor(method.getParameters(), values).getPageable();
+        }
+        
+        if (pageable != null) {
+            int limit = method.isSliceQuery() ? pageable.getPageSize() + 1 : pageable.getPageSize();
+            
+            query.setLimit(maxResults == null ? limit : (int) Math.min(limit, maxResults - pageable.getOffset()));
+        } else if (maxResults != null) {
+            query.setLimit(maxResults);
+        }
+        
+        return query;
+    }
+    
     @SuppressWarnings("rawtypes")
     private OSQLQuery applyFetchPlan(OSQLQuery query) {
         String fetchPlan = method.getFetchPlan();
@@ -138,6 +407,32 @@ public abstract class AbstractOrientQuery implements RepositoryQuery {
         return query;
     }
     
+    /**
+     * Gets the query settings.
+     *
+     * @return the settings
+     */
+    protected OrientQuerySettings getSettings() {
+        return settings;
+    }
+    
+    private QueryResultCache createCache() {
+        CachedQuery cachedQuery = method.getCachedQueryAnnotation();
+        
+        if (cachedQuery == null) {
+            return null;
+        }
+        
+        // Pages and slices can not be copied for every caller, so only lists, entities and values are cached
+        if (method.isStreamQuery() || method.isPublisherQuery() || method.isAsyncQuery() || method.isPageQuery() || method.isSliceQuery()) {
+            throw new IllegalStateException(String.format("Results of method %s can not be cached!", method));
+        }
+        
+        long ttl = cachedQuery.timeUnit().toMillis(cachedQuery.ttl());
+        
+        return settings.getCacheManager().createCache(operations.getDatabaseFactory(), getCachedSources(), ttl, cachedQuery.maxEntries());
+    }
+    
     protected DetachMode getDetachMode() {
         return method.getDetachMode();
     }
@@ -0,0 +1,256 @@
+package org.springframework.data.orient.repository.query;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.orient.core.OrientOperations;
+import org.springframework.data.orient.object.repository.DetachMode;
+import org.springframework.data.orient.repository.CloseableIterator;
+
+import com.orientechnologies.orient.core.command.OCommandResultListener;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.query.OSQLAsynchQuery;
+import com.orientechnologies.orient.core.sql.query.OSQLQuery;
+
+/**
+ * A {@link CloseableIterator} fed by an {@link OSQLAsynchQuery} running on a pooled connection. The records are handed
+ * off through a bounded queue, so the query is paused while the queue is full and the memory used does not depend on
+ * the size of the result. Records are converted into entities on the consuming thread. The query is cancelled when
+ * the iterator is closed, or when its results are not consumed for the idle timeout, so an abandoned iterator does not
+ * hold the executor thread and the pooled connection forever. Likewise the consumer waits for the next record for the
+ * idle timeout at most, e.g. while the query is waiting for an executor thread, and the iterator is closed then.
+ *
+ * @author Dzmitry_Naskou
+ */
+final class AsynchQueryIterator implements CloseableIterator<Object> {
+
+    /** The marker of the end of the results. */
+    private static final Object END = new Object();
+    
+    /** The time in milliseconds the query waits for the queue before checking whether the iterator was closed. */
+    private static final long OFFER_TIMEOUT = 100;
+    
+    /** The hand-off queue. */
+    private final BlockingQueue<Object> queue;
+    
+    /** The orient operations. */
+    private final OrientOperations operations;
+    
+    /** The fetch plan. */
+    private final String fetchPlan;
+    
+    /** The detach mode. */
+    private final DetachMode detachMode;
+    
+    /** The time in milliseconds the query waits for the results to be consumed, non-positive to wait forever. */
+    private final long idleTimeout;
+    
+    /** Whether the iterator was closed. */
+    private volatile boolean closed;
+    
+    /** The exception the query failed with. */
+    private volatile Exception failure;
+    
+    /** The next record, {@literal null} if not fetched yet. */
+    private Object next;
+    
+    /** Whether all the records were consumed. */
+    private boolean done;
+    
+    /**
+     * Instantiates a new {@link AsynchQueryIterator}.
+     *
+     * @param operations the orient operations
+     * @param fetchPlan the fetch plan to convert records with
+     * @param detachMode the detach mode
+     * @param capacity the capacity of the hand-off queue
+     * @param idleTimeout the time in milliseconds the query waits for the results to be consumed before it is
+     *            cancelled, non-positive to wait until the iterator is closed
+     */
+    public AsynchQueryIterator(OrientOperations operations, String fetchPlan, DetachMode detachMode, int capacity, long idleTimeout) {
+        super();
+        this.queue = new ArrayBlockingQueue<Object>(capacity);
+        this.operations = operations;
+        this.fetchPlan = fetchPlan;
+        this.detachMode = detachMode;
+        this.idleTimeout = idleTimeout;
+    }
+    
+    /**
+     * Starts the asynchronous version of the given query on the given executor.
+     *
+     * @param executor the executor
+     * @param query the query
+     * @param values the values to bind
+     * @return the iterator
+     */
+    public AsynchQueryIterator start(Executor executor, OSQLQuery<?> query, final Object[] values) {
+        final OSQLAsynchQuery<Object> asynchQuery = QueryUtils.toAsynchQuery(query, new ResultListener());
+        
+        final PooledDatabaseCallable<Object> callable = new PooledDatabaseCallable<Object>(operations.getDatabaseFactory(), new Callable<Object>() {
+            @Override
+            public Object call() {
+                return operations.query(asynchQuery, values);
+            }
+        });
+        
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    callable.call();
+                } catch (Exception e) {
+                    failure = e;
+                } finally {
+                    push(END);
+                }
+            }
+        });
+        
+        return this;
+    }
+    
+    /* (non-Javadoc)
+     * @see java.util.Iterator#hasNext()
+     */
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        
+        if (done) {
+            return false;
+        }
+        
+        Object record = take();
+        
+        if (record == END) {
+            done = true;
+            rethrowFailure();
+            
+            return false;
+        }
+        
+        next = record;
+        
+        return true;
+    }
+    
+    /* (non-Javadoc)
+     * @see java.util.Iterator#next()
+     */
+    @Override
+    public Object next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        
+        Object record = next;
+        next = null;
+        
+        return OrientQueryExecution.toEntity(operations, record, fetchPlan, detachMode);
+    }
+    
+    /* (non-Javadoc)
+     * @see java.util.Iterator#remove()
+     */
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+    
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.repository.CloseableIterator#close()
+     */
+    @Override
+    public void close() {
+        closed = true;
+        done = true;
+        next = null;
+        queue.clear();
+    }
+    
+    private Object take() {
+        try {
+            Object record = idleTimeout > 0 ? queue.poll(idleTimeout, TimeUnit.MILLISECONDS) : queue.take();
+            
+            if (record == null) {
+                close();
+                throw new QueryTimeoutException(String.format("Query was cancelled since it produced no results for %d ms!", idleTimeout));
+            }
+            
+            return record;
+        } catch (InterruptedException e) {
+            close();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the query result!", e);
+        }
+    }
+    
+    private boolean push(Object record) {
+        long idleSince = System.currentTimeMillis();
+        
+        try {
+            while (!closed) {
+                if (queue.offer(record, OFFER_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+                
+                if (idleTimeout > 0 && System.currentTimeMillis() - idleSince >= idleTimeout) {
+                    abandon();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Cancels the query whose results were not consumed for the idle timeout. The buffered records are dropped, so the
+     * consumer coming back gets the end marker followed by the timeout failure.
+     */
+    private void abandon() {
+        failure = new QueryTimeoutException(String.format("Query was cancelled since its results were not consumed for %d ms!", idleTimeout));
+        closed = true;
+        queue.clear();
+        queue.offer(END);
+    }
+    
+    private void rethrowFailure() {
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure != null) {
+            throw new IllegalStateException("Could not execute the query!", failure);
+        }
+    }
+    
+    /**
+     * Hands off the records of the asynchronous query to the queue. The query is stopped once the iterator is closed.
+     */
+    private class ResultListener implements OCommandResultListener {
+        
+        /* (non-Javadoc)
+         * @see com.orientechnologies.orient.core.command.OCommandResultListener#result(java.lang.Object)
+         */
+        @Override
+        public boolean result(Object record) {
+            // The record instance may be reused by the query, so a copy is handed off
+            return push(record instanceof ODocument ? ((ODocument) record).copy() : record);
+        }
+        
+        /* (non-Javadoc)
+         * @see com.orientechnologies.orient.core.command.OCommandResultListener#end()
+         */
+        @Override
+        public void end() {
+        }
+    }
+}
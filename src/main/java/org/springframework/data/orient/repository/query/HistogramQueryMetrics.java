@@ -0,0 +1,205 @@
+package org.springframework.data.orient.repository.query;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@link QueryMetrics} keeping a latency histogram, the number of returned rows and the number of failures for each
+ * repository method in memory. The histogram has a bucket for each power of two microseconds, so percentiles are
+ * reported as the upper bound of their bucket, i.e. with an error below a factor of two.
+ *
+ * @author Dzmitry_Naskou
+ */
+public class HistogramQueryMetrics implements QueryMetrics {
+
+    /** The statistics by method. */
+    private final ConcurrentMap<String, Statistics> statistics = new ConcurrentHashMap<String, Statistics>();
+    
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.repository.query.QueryMetrics#record(java.lang.String, long, int, java.lang.Throwable)
+     */
+    @Override
+    public void record(String method, long elapsedNanos, int rows, Throwable failure) {
+        Statistics methodStatistics = statistics.get(method);
+        
+        if (methodStatistics == null) {
+            Statistics created = new Statistics();
+            methodStatistics = statistics.putIfAbsent(method, created);
+            
+            if (methodStatistics == null) {
+                methodStatistics = created;
+            }
+        }
+        
+        methodStatistics.record(elapsedNanos, rows, failure != null);
+    }
+    
+    /**
+     * Gets the statistics of the given method.
+     *
+     * @param method the name of the method
+     * @return the statistics or {@literal null} if the method was not executed yet
+     */
+    public Statistics getStatistics(String method) {
+        return statistics.get(method);
+    }
+    
+    /**
+     * Gets the statistics of all the executed methods by their names.
+     *
+     * @return the statistics
+     */
+    public Map<String, Statistics> getStatistics() {
+        return Collections.unmodifiableMap(statistics);
+    }
+    
+    /**
+     * Clears the statistics of all the methods.
+     */
+    public void reset() {
+        statistics.clear();
+    }
+    
+    /**
+     * The statistics of a single repository method.
+     */
+    public static class Statistics {
+        
+        /** The number of buckets of the latency histogram, the last one covers more than 2^38 microseconds. */
+        private static final int BUCKETS = 40;
+        
+        /** The number of executions by latency bucket. */
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+        
+        /** The number of executions. */
+        private final AtomicLong count = new AtomicLong();
+        
+        /** The number of failed executions. */
+        private final AtomicLong failures = new AtomicLong();
+        
+        /** The total number of returned rows. */
+        private final AtomicLong rows = new AtomicLong();
+        
+        /** The total elapsed time in nanoseconds. */
+        private final AtomicLong totalNanos = new AtomicLong();
+        
+        /** The maximum elapsed time in nanoseconds. */
+        private final AtomicLong maxNanos = new AtomicLong();
+        
+        void record(long elapsedNanos, int rowCount, boolean failed) {
+            histogram.incrementAndGet(toBucket(elapsedNanos));
+            count.incrementAndGet();
+            totalNanos.addAndGet(elapsedNanos);
+            
+            if (failed) {
+                failures.incrementAndGet();
+            }
+            
+            if (rowCount > 0) {
+                rows.addAndGet(rowCount);
+            }
+            
+            long max = maxNanos.get();
+            
+            while (elapsedNanos > max && !maxNanos.compareAndSet(max, elapsedNanos)) {
+                max = maxNanos.get();
+            }
+        }
+        
+        /**
+         * Gets the number of executions.
+         *
+         * @return the count
+         */
+        public long getCount() {
+            return count.get();
+        }
+        
+        /**
+         * Gets the number of failed executions.
+         *
+         * @return the failures
+         */
+        public long getFailures() {
+            return failures.get();
+        }
+        
+        /**
+         * Gets the total number of returned rows.
+         *
+         * @return the rows
+         */
+        public long getRows() {
+            return rows.get();
+        }
+        
+        /**
+         * Gets the mean elapsed time in nanoseconds.
+         *
+         * @return the mean
+         */
+        public long getMeanNanos() {
+            long executions = count.get();
+            return executions == 0 ? 0 : totalNanos.get() / executions;
+        }
+        
+        /**
+         * Gets the maximum elapsed time in nanoseconds.
+         *
+         * @return the maximum
+         */
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+        
+        /**
+         * Gets the elapsed time in nanoseconds the given percentage of executions did not exceed, e.g. {@code 99} for
+         * the 99th percentile.
+         *
+         * @param percentile the percentile between 0 and 100
+         * @return the upper bound of the percentile
+         */
+        public long getPercentileNanos(double percentile) {
+            long executions = count.get();
+            
+            if (executions == 0) {
+                return 0;
+            }
+            
+            long rank = (long) Math.ceil(executions * percentile / 100);
+            long seen = 0;
+            
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += histogram.get(i);
+                
+                if (seen >= rank) {
+                    return Math.min(toUpperBound(i), getMaxNanos());
+                }
+            }
+            
+            return getMaxNanos();
+        }
+        
+        private static int toBucket(long elapsedNanos) {
+            long micros = elapsedNanos / 1000;
+            
+            return micros <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        }
+        
+        private static long toUpperBound(int bucket) {
+            return (1L << bucket) * 1000;
+        }
+        
+        /* (non-Javadoc)
+         * @see java.lang.Object#toString()
+         */
+        @Override
+        public String toString() {
+            return String.format("count=%d, failures=%d, rows=%d, mean=%dns, p99=%dns, max=%dns", getCount(), getFailures(), getRows(), getMeanNanos(), getPercentileNanos(99), getMaxNanos());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.springframework.data.orient.repository.query;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+import org.springframework.data.orient.repository.CloseableIterator;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Calls the utility classes compiled against the JDK 8 API, which live in {@code src/main/java8} and are only built by
+ * the {@code java8} profile. The main sources stay compatible with Java 7, so they reach the utilities reflectively.
+ *
+ * @author Dzmitry_Naskou
+ */
+final class Java8Support {
+
+    /** The name of the utility class creating Java 8 streams. */
+    private static final String STREAM_UTILS = "org.springframework.data.orient.repository.query.StreamUtils";
+    
+    /** The name of the utility class creating Java 8 completable futures. */
+    private static final String COMPLETABLE_FUTURE_UTILS = "org.springframework.data.orient.repository.query.CompletableFutureUtils";
+    
+    private Java8Support() {
+        super();
+    }
+    
+    /**
+     * Checks whether the Java 8 utilities were built and can be loaded.
+     *
+     * @return true, if the Java 8 support is present
+     */
+    static boolean isPresent() {
+        ClassLoader classLoader = Java8Support.class.getClassLoader();
+        
+        return ClassUtils.isPresent(STREAM_UTILS, classLoader) && ClassUtils.isPresent(COMPLETABLE_FUTURE_UTILS, classLoader);
+    }
+    
+    /**
+     * Creates a sequential {@code java.util.stream.Stream} over the given iterator closing it when the stream is closed.
+     *
+     * @param iterator the iterator
+     * @return the stream
+     */
+    static Object toStream(CloseableIterator<?> iterator) {
+        return invoke(STREAM_UTILS, "toStream", new Class<?>[] { CloseableIterator.class }, iterator);
+    }
+    
+    /**
+     * Calls the given {@link Callable} on the given executor returning a {@code java.util.concurrent.CompletableFuture}.
+     *
+     * @param callable the callable
+     * @param executor the executor
+     * @return the future result
+     */
+    static Object supplyAsync(Callable<?> callable, Executor executor) {
+        return invoke(COMPLETABLE_FUTURE_UTILS, "supplyAsync", new Class<?>[] { Callable.class, Executor.class }, callable, executor);
+    }
+    
+    private static Object invoke(String className, String methodName, Class<?>[] parameterTypes, Object... args) {
+        Class<?> type = ClassUtils.resolveClassName(className, Java8Support.class.getClassLoader());
+        Method method = ReflectionUtils.findMethod(type, methodName, parameterTypes);
+        ReflectionUtils.makeAccessible(method);
+        
+        return ReflectionUtils.invokeMethod(method, null, args);
+    }
+}
@@ -1,11 +1,28 @@
 package org.springframework.data.orient.repository.query;
 
+import static org.jooq.impl.DSL.field;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.jooq.DSLContext;
 import org.jooq.Record;
 import org.jooq.SQLDialect;
 import org.jooq.SelectJoinStep;
+import org.jooq.SortField;
+import org.jooq.SortOrder;
 import org.jooq.impl.DSL;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort.Order;
 
+/**
+ * Utility class to create Orient queries with JOOQ. JOOQ is an optional dependency, the repository
+ * infrastructure itself uses {@link OrientSqlBuilder}.
+ * 
+ * @author Dzmitry_Naskou
+ */
 public class JooqUtils {
 
     public static DSLContext context() {
@@ -15,4 +32,24 @@ public class JooqUtils {
     public static SelectJoinStep<? extends Record> from(String source) {
         return context().select().from(source);
     }
+    
+    /**
+     * Converts the given {@link Sort} into {@link SortField}s.
+     *
+     * @param sort the {@link Sort} instance to be transformed into JOOQ {@link SortField}s.
+     * @return the list of {@link SortField}s.
+     */
+    public static List<SortField<?>> toOrders(Sort sort) {
+        if (sort == null) {
+            return Collections.emptyList();
+        }
+        
+        List<SortField<?>> orders = new ArrayList<SortField<?>>();
+        
+        for (Order order : sort) {
+            orders.add(field(order.getProperty()).sort(order.getDirection() == Direction.ASC ? SortOrder.ASC : SortOrder.DESC)); 
+        }
+
+        return orders;
+    }
 }
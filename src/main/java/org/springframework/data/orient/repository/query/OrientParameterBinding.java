@@ -0,0 +1,73 @@
+package org.springframework.data.orient.repository.query;
+
+/**
+ * Describes how a method argument is bound to a query parameter placeholder.
+ *
+ * @author Dzmitry_Naskou
+ */
+public final class OrientParameterBinding {
+
+    /**
+     * The wildcards to add to the bound value for {@code like} conditions.
+     */
+    public enum Wildcard {
+        NONE, STARTING_WITH, ENDING_WITH, CONTAINING
+    }
+    
+    /** The index of the argument within the bindable arguments. */
+    private final int index;
+    
+    /** Whether the value is converted to lower case. */
+    private final boolean ignoreCase;
+    
+    /** The wildcard. */
+    private final Wildcard wildcard;
+    
+    /**
+     * Instantiates a new {@link OrientParameterBinding}.
+     *
+     * @param index the index of the argument within the bindable arguments
+     * @param ignoreCase whether the value is converted to lower case
+     * @param wildcard the wildcard
+     */
+    public OrientParameterBinding(int index, boolean ignoreCase, Wildcard wildcard) {
+        super();
+        this.index = index;
+        this.ignoreCase = ignoreCase;
+        this.wildcard = wildcard;
+    }
+    
+    /**
+     * Gets the index of the argument within the bindable arguments.
+     *
+     * @return the index
+     */
+    public int getIndex() {
+        return index;
+    }
+    
+    /**
+     * Prepares the value to bind from the given bindable arguments.
+     *
+     * @param values the bindable arguments
+     * @return the value to bind
+     */
+    public Object bind(Object[] values) {
+        Object value = values[index];
+        
+        if (value == null || (!ignoreCase && wildcard == Wildcard.NONE)) {
+            return value;
+        }
+        
+        String string = ignoreCase ? value.toString().toLowerCase() : value.toString();
+        
+        switch (wildcard) {
+            case STARTING_WITH: return string + "%";
+            case ENDING_WITH: return "%" + string;
+            case CONTAINING: return "%" + string + "%";
+            case NONE:
+        }
+        
+        return string;
+    }
+}
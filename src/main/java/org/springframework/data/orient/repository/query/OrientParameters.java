@@ -12,6 +12,9 @@ public class OrientParameters extends Parameters<OrientParameters, OrientParamet
 
     private final int sourceIndex;
     
+    /** The positions of the bindable parameters within the method arguments. */
+    private final int[] bindableIndexes;
+    
     private OrientParameters(List<OrientParameter> originals) {
         super(originals);
         
@@ -23,6 +26,7 @@ public class OrientParameters extends Parameters<OrientParameters, OrientParamet
         }
         
         sourceIndex = clusterIndexTemp;
+        bindableIndexes = resolveBindableIndexes();
     }
 
     public OrientParameters(Method method) {
@@ -31,6 +35,7 @@ public class OrientParameters extends Parameters<OrientParameters, OrientParamet
         List<Class<?>> types = Arrays.asList(method.getParameterTypes());
         
         sourceIndex = types.indexOf(OrientSource.class);
+        bindableIndexes = resolveBindableIndexes();
     }
 
     /* (non-Javadoc)
@@ -56,4 +61,43 @@ public class OrientParameters extends Parameters<OrientParameters, OrientParamet
     public boolean hasSourceParameter() {
         return sourceIndex != -1;
     }
+    
+    /**
+     * Checks if the rendered query depends on the argument values, i.e. the method accepts a source, {@link org.springframework.data.domain.Sort}
+     * or {@link org.springframework.data.domain.Pageable} parameter.
+     *
+     * @return true, if the query has to be rendered per invocation
+     */
+    public boolean hasDynamicParameters() {
+        return hasSourceParameter() || hasSortParameter() || hasPageableParameter();
+    }
+    
+    /**
+     * Extracts the values to bind to the query from the given method arguments.
+     *
+     * @param values the method arguments
+     * @return the values to bind
+     */
+    public Object[] getBindableValues(Object[] values) {
+        Object[] result = new Object[bindableIndexes.length];
+        
+        for (int i = 0; i < bindableIndexes.length; i++) {
+            result[i] = values[bindableIndexes[i]];
+        }
+        
+        return result;
+    }
+    
+    private int[] resolveBindableIndexes() {
+        int[] indexes = new int[getNumberOfParameters()];
+        int count = 0;
+        
+        for (OrientParameter parameter : this) {
+            if (parameter.isBindable()) {
+                indexes[count++] = parameter.getIndex();
+            }
+        }
+        
+        return Arrays.copyOf(indexes, count);
+    }
 }
@@ -0,0 +1,338 @@
+package org.springframework.data.orient.repository.query;
+
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.beans.SimpleTypeConverter;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.orient.repository.KeysetPageRequest;
+
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+
+/**
+ * The projection of the entities a query method returns into an interface or a DTO class. Only the properties of the
+ * projection are selected, and the resulting documents are mapped into the projection directly, so no entity proxies
+ * are created and no links are loaded.
+ * <p>
+ * Interfaces are implemented by proxies answering their getters from the selected values. Classes are instantiated
+ * through their no-argument constructor and their fields are set, or through their only constructor with the selected
+ * values as arguments matched by parameter names.
+ *
+ * @author Dzmitry_Naskou
+ */
+final class OrientProjection {
+
+    /** The parameter name discoverer. */
+    private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
+    
+    /** The projection type. */
+    private final Class<?> type;
+    
+    /** The projected properties. */
+    private final List<String> properties;
+    
+    /** The constructor of the DTO class taking the properties as arguments, {@literal null} for other projections. */
+    private final Constructor<?> constructor;
+    
+    /**
+     * Instantiates a new {@link OrientProjection}.
+     *
+     * @param type the projection type
+     */
+    private OrientProjection(Class<?> type) {
+        super();
+        this.type = type;
+        this.constructor = type.isInterface() ? null : resolveConstructor(type);
+        this.properties = Collections.unmodifiableList(resolveProperties());
+    }
+    
+    /**
+     * Creates the projection of the given domain class into the given type returned by a query method.
+     *
+     * @param type the element type returned by the query method
+     * @param domainClass the domain class
+     * @return the projection or {@literal null} if the type is not a projection
+     */
+    static OrientProjection of(Class<?> type, Class<?> domainClass) {
+        if (!isProjection(type, domainClass)) {
+            return null;
+        }
+        
+        return new OrientProjection(type);
+    }
+    
+    /**
+     * Gets the projection type.
+     *
+     * @return the type
+     */
+    public Class<?> getType() {
+        return type;
+    }
+    
+    /**
+     * Gets the properties to select.
+     *
+     * @return the properties
+     */
+    public List<String> getProperties() {
+        return properties;
+    }
+    
+    /**
+     * Converts the result of a query, i.e. a list, a page, a slice or a single record, into projections.
+     *
+     * @param result the result
+     * @return the projected result
+     */
+    public Object convertResult(Object result) {
+        if (result instanceof List) {
+            return convert((List<?>) result);
+        } else if (result instanceof Page) {
+            Page<?> page = (Page<?>) result;
+            
+            return new PageImpl<Object>(convert(page.getContent()), toPageable(page), page.getTotalElements());
+        } else if (result instanceof Slice) {
+            Slice<?> slice = (Slice<?>) result;
+            
+            return new SliceImpl<Object>(convert(slice.getContent()), toPageable(slice), slice.hasNext());
+        }
+        
+        return convert(result);
+    }
+    
+    /**
+     * Converts the given record or entity into the projection.
+     *
+     * @param source the record or entity
+     * @return the projection
+     */
+    public Object convert(Object source) {
+        if (source == null || type.isInstance(source)) {
+            return source;
+        }
+        
+        Map<String, Object> values = new HashMap<String, Object>();
+        
+        if (source instanceof ODocument) {
+            ODocument document = (ODocument) source;
+            
+            for (String property : properties) {
+                values.put(property, document.field(property));
+            }
+        } else {
+            BeanWrapperImpl wrapper = new BeanWrapperImpl(source);
+            
+            for (String property : properties) {
+                values.put(property, wrapper.getPropertyValue(property));
+            }
+        }
+        
+        if (type.isInterface()) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, new ProjectionInvocationHandler(values));
+        } else if (constructor != null) {
+            return instantiate(values);
+        }
+        
+        Object result = BeanUtils.instantiateClass(type);
+        DirectFieldAccessor accessor = new DirectFieldAccessor(result);
+        
+        for (String property : properties) {
+            accessor.setPropertyValue(property, convertValue(values.get(property), accessor.getPropertyType(property)));
+        }
+        
+        return result;
+    }
+    
+    private List<Object> convert(List<?> sources) {
+        List<Object> result = new ArrayList<Object>(sources.size());
+        
+        for (Object source : sources) {
+            result.add(convert(source));
+        }
+        
+        return result;
+    }
+    
+    private Object instantiate(Map<String, Object> values) {
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        Object[] arguments = new Object[parameterTypes.length];
+        
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = convertValue(values.get(properties.get(i)), parameterTypes[i]);
+        }
+        
+        return BeanUtils.instantiateClass(constructor, arguments);
+    }
+    
+    private List<String> resolveProperties() {
+        List<String> result = new ArrayList<String>();
+        
+        if (type.isInterface()) {
+            for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(type)) {
+                if (descriptor.getReadMethod() != null) {
+                    result.add(descriptor.getName());
+                }
+            }
+        } else if (constructor != null) {
+            String[] names = PARAMETER_NAME_DISCOVERER.getParameterNames(constructor);
+            
+            if (names == null) {
+                throw new IllegalStateException(String.format("Could not discover the constructor parameter names of the projection %s, compile it with debug information!", type.getName()));
+            }
+            
+            Collections.addAll(result, names);
+        } else {
+            for (Class<?> current = type; current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers()) && !field.isSynthetic()) {
+                        result.add(field.getName());
+                    }
+                }
+            }
+        }
+        
+        if (result.isEmpty()) {
+            throw new IllegalStateException(String.format("The projection %s has no properties!", type.getName()));
+        }
+        
+        return result;
+    }
+    
+    private static Constructor<?> resolveConstructor(Class<?> type) {
+        Constructor<?>[] constructors = type.getDeclaredConstructors();
+        
+        for (Constructor<?> candidate : constructors) {
+            if (candidate.getParameterTypes().length == 0) {
+                return null;
+            }
+        }
+        
+        if (constructors.length != 1) {
+            throw new IllegalStateException(String.format("The projection %s must declare a no-argument constructor or a single constructor!", type.getName()));
+        }
+        
+        return constructors[0];
+    }
+    
+    private static boolean isProjection(Class<?> type, Class<?> domainClass) {
+        if (type == null || type.isPrimitive() || type.isArray() || type.isEnum() || BeanUtils.isSimpleProperty(type)) {
+            return false;
+        }
+        
+        if (type.isAssignableFrom(domainClass) || domainClass.isAssignableFrom(type) || OIdentifiable.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)) {
+            return false;
+        }
+        
+        if (!type.isInterface() && (Modifier.isAbstract(type.getModifiers()) || type.isMemberClass() && !Modifier.isStatic(type.getModifiers()))) {
+            return false;
+        }
+        
+        return !type.getName().startsWith("java.");
+    }
+    
+    /**
+     * Converts the given selected value into the given type of a projection property. Missing primitive values are
+     * converted into the default value of the type.
+     *
+     * @param value the value
+     * @param type the property type
+     * @return the converted value
+     */
+    private static Object convertValue(Object value, Class<?> type) {
+        if (value == null && type.isPrimitive()) {
+            return Array.get(Array.newInstance(type, 1), 0);
+        }
+        
+        return new SimpleTypeConverter().convertIfNecessary(value, type);
+    }
+    
+    private static Pageable toPageable(Slice<?> slice) {
+        Pageable next = slice.hasNext() ? slice.nextPageable() : null;
+        
+        // Keeps the token of the last record, so the next keyset page continues after it
+        if (next instanceof KeysetPageRequest) {
+            return new KeysetPageRequest(slice.getNumber(), Math.max(slice.getSize(), 1), slice.getSort(), null)
+                    .withNextToken(((KeysetPageRequest) next).getToken());
+        }
+        
+        return new PageRequest(slice.getNumber(), Math.max(slice.getSize(), 1), slice.getSort());
+    }
+    
+    /**
+     * Answers the getters of an interface projection from the selected values.
+     */
+    private static class ProjectionInvocationHandler implements InvocationHandler {
+        
+        /** The selected values. */
+        private final Map<String, Object> values;
+        
+        /**
+         * Instantiates a new {@link ProjectionInvocationHandler}.
+         *
+         * @param values the selected values
+         */
+        public ProjectionInvocationHandler(Map<String, Object> values) {
+            super();
+            this.values = values;
+        }
+        
+        /* (non-Javadoc)
+         * @see java.lang.reflect.InvocationHandler#invoke(java.lang.Object, java.lang.reflect.Method, java.lang.Object[])
+         */
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            String name = method.getName();
+            
+            if ("equals".equals(name) && args != null && args.length == 1) {
+                return args[0] != null && Proxy.isProxyClass(args[0].getClass()) && Proxy.getInvocationHandler(args[0]) instanceof ProjectionInvocationHandler
+                        && values.equals(((ProjectionInvocationHandler) Proxy.getInvocationHandler(args[0])).values);
+            } else if ("hashCode".equals(name) && args == null) {
+                return values.hashCode();
+            } else if ("toString".equals(name) && args == null) {
+                return values.toString();
+            }
+            
+            String property = toProperty(name);
+            
+            if (property == null || args != null && args.length > 0 || !values.containsKey(property)) {
+                throw new UnsupportedOperationException(String.format("Method %s is not a property of the projection!", method));
+            }
+            
+            return convertValue(values.get(property), method.getReturnType());
+        }
+        
+        private static String toProperty(String methodName) {
+            if (methodName.startsWith("get") && methodName.length() > 3) {
+                return Introspector.decapitalize(methodName.substring(3));
+            } else if (methodName.startsWith("is") && methodName.length() > 2) {
+                return Introspector.decapitalize(methodName.substring(2));
+            }
+            
+            return null;
+        }
+    }
+}
@@ -1,141 +1,153 @@
 package org.springframework.data.orient.repository.query;
 
-import static org.jooq.impl.DSL.field;
-
-import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
-import org.jooq.Condition;
-import org.jooq.DSLContext;
-import org.jooq.Field;
-import org.jooq.Query;
-import org.jooq.Record;
-import org.jooq.SQLDialect;
-import org.jooq.SelectConditionStep;
-import org.jooq.SelectLimitStep;
-import org.jooq.SelectSelectStep;
-import org.jooq.SortField;
-import org.jooq.SortOrder;
-import org.jooq.conf.ParamType;
-import org.jooq.impl.DSL;
-import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.domain.Sort.Order;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.orient.repository.ContinuationToken;
 import org.springframework.data.orient.repository.DefaultSource;
+import org.springframework.data.orient.repository.KeysetPageRequest;
 import org.springframework.data.orient.repository.OrientSource;
 import org.springframework.data.orient.repository.annotation.Cluster;
 import org.springframework.data.orient.repository.annotation.Source;
+import org.springframework.data.orient.repository.query.OrientParameterBinding.Wildcard;
 import org.springframework.data.repository.query.parser.AbstractQueryCreator;
 import org.springframework.data.repository.query.parser.Part;
 import org.springframework.data.repository.query.parser.PartTree;
 
-public class OrientQueryCreator extends AbstractQueryCreator<String, Condition> {
-    
-    private final DSLContext context;
-    
+/**
+ * Creates OSQL queries from a {@link PartTree}. All the arguments are rendered as positional parameters, the way they
+ * are bound is described by {@link #getBindings()}. The page size is not rendered either, it is set as the limit of
+ * the query object by {@link AbstractOrientQuery}, so the query text does not depend on it.
+ *
+ * @author Dzmitry_Naskou
+ */
+public class OrientQueryCreator extends AbstractQueryCreator<String, String> {
+
     private final PartTree tree;
     
     private final OrientParameterAccessor accessor;
     
     private final OrientQueryMethod method;
     
-    private final ParamType paramType;
-        
     private final Class<?> domainClass;
     
+    /** The bindings of the rendered parameters in order of appearance. */
+    private final List<OrientParameterBinding> bindings = new ArrayList<OrientParameterBinding>();
+    
+    /** The number of the consumed arguments. */
+    private int argumentCount;
+    
     public OrientQueryCreator(PartTree tree, OrientQueryMethod method, OrientParameterAccessor parameters) {
-        this(tree, method, parameters, ParamType.NAMED);
-    }
-
-    public OrientQueryCreator(PartTree tree, OrientQueryMethod method, OrientParameterAccessor parameters, ParamType paramType) {
         super(tree, parameters);
         
         this.method = method;
-        this.context = DSL.using(SQLDialect.MYSQL);
         this.tree = tree;
         this.accessor = parameters;
-        this.paramType = paramType;
         this.domainClass = method.getEntityInformation().getJavaType();
     }
     
     @Override
-    protected Condition create(Part part, Iterator<Object> iterator) {
+    protected String create(Part part, Iterator<Object> iterator) {
         return toCondition(part, iterator);
     }
-
+    
     @Override
-    protected Condition and(Part part, Condition base, Iterator<Object> iterator) {
-        return base.and(toCondition(part, iterator));
+    protected String and(Part part, String base, Iterator<Object> iterator) {
+        return base + " and " + toCondition(part, iterator);
     }
-
+    
     @Override
-    protected Condition or(Condition base, Condition criteria) {
-        return base.or(criteria);
+    protected String or(String base, String criteria) {
+        return "(" + base + ") or (" + criteria + ")";
     }
     
     public boolean isCountQuery() {
         return tree.isCountProjection();
     }
-
+    
+    public boolean isDeleteQuery() {
+        return tree.isDelete();
+    }
+    
+    /**
+     * Gets the bindings of the parameters rendered by the last {@link #createQuery()} call.
+     *
+     * @return the bindings
+     */
+    public List<OrientParameterBinding> getBindings() {
+        return Collections.unmodifiableList(bindings);
+    }
+    
     @Override
-    protected String complete(Condition criteria, Sort sort) {
+    protected String complete(String criteria, Sort sort) {
         Pageable pageable = accessor.getPageable();
         
-        SelectSelectStep<? extends Record> selectStep;
+        OrientSqlBuilder builder = OrientSqlBuilder.reuse();
         
         if (isCountQuery()) {
-            selectStep = context.selectCount();
-        } else if (tree.isDistinct()) {
-            selectStep = context.selectDistinct();
+            builder.selectCount();
+        } else if (isDeleteQuery()) {
+            builder.delete();
+        } else if (method.isExistsQuery()) {
+            builder.select(QueryUtils.RID);
+        } else if (method.getProjection() != null) {
+            // Keyset pages continue after the record id of their last record, so the record id is projected too
+            builder.select(getProjectedProperties(pageable instanceof KeysetPageRequest ? QueryUtils.toKeysetSort(sort) : sort));
         } else {
-            selectStep = context.select();
+            // Records are distinct by their identity, so there is nothing to do for distinct queries
+            builder.select();
+        }
+        
+        builder.from(QueryUtils.toSource(getSource()));
+        
+        if (isCountQuery() || isDeleteQuery() || method.isExistsQuery()) {
+            builder.where(criteria);
+        } else if (pageable instanceof KeysetPageRequest) {
+            seek(builder, criteria, sort, (KeysetPageRequest) pageable);
+        } else {
+            builder.where(criteria).orderBy(sort);
+            
+            if (pageable != null) {
+                builder.skip(pageable.getOffset());
+            }
         }
-
-        SelectConditionStep<? extends Record> conditionStep = selectStep.from(QueryUtils.toSource(getSource())).where(criteria);        
-
-        SelectLimitStep<? extends Record> limitStep = orderByIfRequired(conditionStep, pageable, sort);
-
-        Query query = limitIfPageable(limitStep, pageable, sort);
-
-        //TODO: Fix it!! 
-        //String queryString = query.getSQL(paramType);
-        //Use inline parameters for paged queries
-        String queryString = pageable == null ? query.getSQL(paramType) : query.getSQL(ParamType.INLINED);
-        System.out.println(queryString);
         
-        return queryString;
+        return builder.build();
     }
     
-    protected Condition toCondition(Part part, Iterator<Object> iterator) {
+    protected String toCondition(Part part, Iterator<Object> iterator) {
         String property = part.getProperty().toDotPath();
-        Field<Object> field = field(property);
         
         switch (part.getType()) {
-            case AFTER: 
-            case GREATER_THAN: return field.gt(iterator.next());
-            case GREATER_THAN_EQUAL: return field.ge(iterator.next());
+            case AFTER:
+            case GREATER_THAN: return property + " > " + bind(iterator);
+            case GREATER_THAN_EQUAL: return property + " >= " + bind(iterator);
             case BEFORE:
-            case LESS_THAN: return field.lt(iterator.next());
-            case LESS_THAN_EQUAL: return field.le(iterator.next());
-            case BETWEEN: return field.between(iterator.next(), iterator.next());
-            case IS_NULL: return field.isNull();
-            case IS_NOT_NULL: return field.isNotNull();
-            case IN: return field.in(toList(iterator));
-            case NOT_IN: return field.notIn(toList(iterator));
-            case LIKE: return lowerIfIgnoreCase(part, field, iterator);
-            case NOT_LIKE: return lowerIfIgnoreCase(part, field, iterator).not();
-            case STARTING_WITH: return field.startsWith(iterator.next());
-            case ENDING_WITH: return field.endsWith(iterator.next());
-            case CONTAINING: return field.contains(iterator.next());
-            case SIMPLE_PROPERTY: return field.eq(iterator.next());
-            case NEGATING_SIMPLE_PROPERTY: return field.ne(iterator.next());
-            case TRUE: return field.isTrue();
-            case FALSE: return field.isFalse();
+            case LESS_THAN: return property + " < " + bind(iterator);
+            case LESS_THAN_EQUAL: return property + " <= " + bind(iterator);
+            case BETWEEN: return property + " between " + bind(iterator) + " and " + bind(iterator);
+            case IS_NULL: return property + " is null";
+            case IS_NOT_NULL: return property + " is not null";
+            case IN: return property + " in " + bind(iterator);
+            case NOT_IN: return "not (" + property + " in " + bind(iterator) + ")";
+            case LIKE: return like(part, property, iterator, Wildcard.NONE);
+            case NOT_LIKE: return "not (" + like(part, property, iterator, Wildcard.NONE) + ")";
+            case STARTING_WITH: return like(part, property, iterator, Wildcard.STARTING_WITH);
+            case ENDING_WITH: return like(part, property, iterator, Wildcard.ENDING_WITH);
+            case CONTAINING: return part.getProperty().isCollection() ? property + " contains " + bind(iterator) : like(part, property, iterator, Wildcard.CONTAINING);
+            case REGEX: return property + " matches " + bind(iterator);
+            case SIMPLE_PROPERTY: return lowerIfIgnoreCase(part, property) + " = " + bind(iterator, isIgnoreCase(part), Wildcard.NONE);
+            case NEGATING_SIMPLE_PROPERTY: return lowerIfIgnoreCase(part, property) + " <> " + bind(iterator, isIgnoreCase(part), Wildcard.NONE);
+            case TRUE: return property + " = true";
+            case FALSE: return property + " = false";
             default: throw new IllegalArgumentException("Unsupported keyword!");
         }
     }
@@ -147,79 +159,84 @@ public class OrientQueryCreator extends AbstractQueryCreator<String, Condition>
             return orientSource;
         }
         
-        Source source = findAnnotation(Source.class);
+        Source source = method.findAnnotation(Source.class);
         if (source != null) {
-            new DefaultSource(source.type(), source.value());
+            return new DefaultSource(source.type(), source.value());
         }
         
-        Cluster cluster = findAnnotation(Cluster.class);
+        Cluster cluster = method.findAnnotation(Cluster.class);
         if (cluster != null) {
-            orientSource = new DefaultSource(cluster.value());
+            return new DefaultSource(cluster.value());
         }
-
+        
         return new DefaultSource(domainClass);
     }
     
+    private String like(Part part, String property, Iterator<Object> iterator, Wildcard wildcard) {
+        boolean ignoreCase = isIgnoreCase(part);
+        
+        return lowerIfIgnoreCase(part, property) + " like " + bind(iterator, ignoreCase, wildcard);
+    }
+    
+    private String lowerIfIgnoreCase(Part part, String property) {
+        return isIgnoreCase(part) ? property + ".toLowerCase()" : property;
+    }
+    
     @SuppressWarnings("incomplete-switch")
-    private Condition lowerIfIgnoreCase(Part part, Field<Object> field, Iterator<Object> iterator) {
+    private boolean isIgnoreCase(Part part) {
         switch (part.shouldIgnoreCase()) {
-            case ALWAYS:
-            case WHEN_POSSIBLE: return field.likeIgnoreCase(iterator.next().toString());
+            case ALWAYS: return true;
+            case WHEN_POSSIBLE: return isString(part.getProperty());
         }
         
-        return field.like(iterator.next().toString());
+        return false;
     }
     
-    private List<Object> toList(Iterator<Object> iterator) {
-        if (iterator == null || !iterator.hasNext()) {
-            return Collections.emptyList();
-        }
-        
-        List<Object> list = new ArrayList<Object>();
-        while (iterator.hasNext()) {
-            list.add(iterator.next());
-        }
-        
-        return list;
+    private boolean isString(PropertyPath property) {
+        return String.class.equals(property.getLeafProperty().getType());
     }
     
-    private List<SortField<?>> toOrders(Sort sort) {
-        List<SortField<?>> orders = new ArrayList<SortField<?>>();
-        
-        for (Order order : sort) {
-            orders.add(field(order.getProperty()).sort(order.getDirection() == Direction.ASC ? SortOrder.ASC : SortOrder.DESC)); 
-        }
-
-        return orders;
+    private String bind(Iterator<Object> iterator) {
+        return bind(iterator, false, Wildcard.NONE);
     }
     
-    private SelectLimitStep<? extends Record> orderByIfRequired(SelectConditionStep<? extends Record> conditionStep, Pageable pageable, Sort sort) {
-        if (isCountQuery()) {
-            return conditionStep;
-        } if (sort == null) {
-            return pageable == null ? conditionStep : conditionStep.and(field("@rid").gt(pageable.getOffset()));
-        } else {
-            return conditionStep.orderBy(toOrders(sort));
-        }
+    private String bind(Iterator<Object> iterator, boolean ignoreCase, Wildcard wildcard) {
+        iterator.next();
+        bindings.add(new OrientParameterBinding(argumentCount++, ignoreCase, wildcard));
+        
+        return OrientSqlBuilder.parameter();
     }
     
-    private Query limitIfPageable(SelectLimitStep<? extends Record> limitStep, Pageable pageable, Sort sort) {
-        if (pageable == null || isCountQuery()) {
-            return limitStep;
-        } else if (sort == null) {
-            return limitStep.limit(pageable.getPageSize());
-        } else {
-            return limitStep.limit(pageable.getPageSize()).offset(pageable.getOffset());
+    /**
+     * Gets the properties of the projection to select, followed by the properties to sort by, since the projected
+     * records are sorted.
+     *
+     * @param sort the sort
+     * @return the properties
+     */
+    private String[] getProjectedProperties(Sort sort) {
+        Set<String> properties = new LinkedHashSet<String>(method.getProjection().getProperties());
+        
+        if (sort != null) {
+            for (Order order : sort) {
+                properties.add(order.getProperty());
+            }
         }
+        
+        return properties.toArray(new String[properties.size()]);
     }
     
-    private <A extends Annotation> A findAnnotation(Class<A> annotationType) {
-        A annotation = AnnotationUtils.findAnnotation(method.getMethod(), annotationType);
+    private void seek(OrientSqlBuilder builder, String criteria, Sort sort, KeysetPageRequest pageable) {
+        Sort keysetSort = QueryUtils.toKeysetSort(sort);
+        Sort orderSort = method.getProjection() == null ? keysetSort : QueryUtils.toProjectedSort(keysetSort);
+        ContinuationToken token = pageable.getToken();
         
-        if (annotation == null) {
-            annotation = AnnotationUtils.findAnnotation(method.getRepositoryInterface(), annotationType);
+        if (token == null) {
+            builder.where(criteria).orderBy(orderSort).skip(pageable.getOffset());
+        } else {
+            String condition = QueryUtils.toSeekCondition(keysetSort, token);
+            
+            builder.where(criteria == null ? condition : "(" + criteria + ") and (" + condition + ")").orderBy(orderSort);
         }
-        
-        return annotation;
     }
 }
@@ -3,11 +3,32 @@ package org.springframework.data.orient.repository.query;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.SimpleTypeConverter;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort.Order;
 import org.springframework.data.orient.core.OrientOperations;
 import org.springframework.data.orient.object.repository.DetachMode;
+import org.springframework.data.orient.repository.ContinuationToken;
+import org.springframework.data.orient.repository.KeysetPageRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.concurrent.ListenableFutureTask;
+
+import com.orientechnologies.orient.core.command.OCommandRequest;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.query.OSQLQuery;
 
 /**
  * Set of classes to contain query execution strategies. 
@@ -49,6 +70,99 @@ public abstract class OrientQueryExecution {
      */
     protected abstract Object doExecute(AbstractOrientQuery query, DetachMode mode, Object[] values);
     
+    /**
+     * Attaches the token to continue after the last element of the given content to a {@link KeysetPageRequest}.
+     * Other {@link Pageable}s are returned as is.
+     *
+     * @param query the orient query
+     * @param pageable the pageable
+     * @param content the content of the page
+     * @return the pageable to create the page with
+     */
+    protected Pageable continueAfter(AbstractOrientQuery query, Pageable pageable, List<?> content) {
+        if (!(pageable instanceof KeysetPageRequest) || content.isEmpty()) {
+            return pageable;
+        }
+        
+        Object last = content.get(content.size() - 1);
+        ORID rid = getIdentity(last);
+        
+        List<Object> keys = new ArrayList<Object>();
+        
+        for (Order order : QueryUtils.toKeysetSort(query.getSort(pageable))) {
+            if (!QueryUtils.RID.equals(order.getProperty())) {
+                keys.add(getProperty(last, order.getProperty()));
+            }
+        }
+        
+        return ((KeysetPageRequest) pageable).withNextToken(new ContinuationToken(rid.toString(), keys.toArray()));
+    }
+    
+    /**
+     * Converts the given record produced by a query into an entity. Projections and other records without a persistent
+     * identity are returned as is.
+     *
+     * @param operations the orient operations
+     * @param record the record
+     * @param fetchPlan the fetch plan, can be {@literal null}
+     * @param detachMode the detach mode
+     * @return the entity
+     */
+    static Object toEntity(OrientOperations operations, Object record, String fetchPlan, DetachMode detachMode) {
+        if (record instanceof OIdentifiable && ((OIdentifiable) record).getIdentity().isPersistent()) {
+            return operations.getEntity((OIdentifiable) record, fetchPlan, detachMode);
+        }
+        
+        return record;
+    }
+    
+    /**
+     * Waits for the result of the given {@link Future} rethrowing the exception it failed with.
+     *
+     * @param future the future
+     * @return the result
+     */
+    protected static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the query result!", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            
+            throw new IllegalStateException("Could not execute the query!", e.getCause());
+        }
+    }
+    
+    private ORID getIdentity(Object entity) {
+        if (!(entity instanceof OIdentifiable)) {
+            return operations.getIdentity(entity);
+        }
+        
+        ORID rid = ((OIdentifiable) entity).getIdentity();
+        
+        // Projected records have a temporary identity, the record id is projected as a field
+        if (!rid.isPersistent() && entity instanceof ODocument) {
+            OIdentifiable projected = ((ODocument) entity).field(QueryUtils.PROJECTED_RID);
+            
+            return projected == null ? rid : projected.getIdentity();
+        }
+        
+        return rid;
+    }
+    
+    private Object getProperty(Object entity, String path) {
+        if (entity instanceof ODocument) {
+            return ((ODocument) entity).field(path);
+        }
+        
+        return new BeanWrapperImpl(entity).getPropertyValue(path);
+    }
+    
     /**
      * Executes the query to return a simple collection of entities.
      * 
@@ -70,7 +184,11 @@ public abstract class OrientQueryExecution {
          */
         @Override
         protected Object doExecute(AbstractOrientQuery query, DetachMode mode, Object[] values) {
-            return operations.query(query.createQuery(values), mode, prepareParameters(parameters, values));
+            if (query.isBeyondMaxResults(new OrientParametersParameterAccessor(parameters, values).getPageable())) {
+                return Collections.emptyList();
+            }
+            
+            return operations.query(query.createQuery(values), mode, query.prepareParameters(values));
         }
     }
     
@@ -95,7 +213,7 @@ public abstract class OrientQueryExecution {
          */
         @Override
         protected Object doExecute(AbstractOrientQuery query, DetachMode mode, Object[] values) {
-            return operations.queryForObject(query.createQuery(values), mode, prepareParameters(parameters, values));
+            return operations.queryForObject(query.createQuery(values), mode, query.prepareParameters(values));
         }
     }
     
@@ -120,7 +238,75 @@ public abstract class OrientQueryExecution {
          */
         @Override
         protected Object doExecute(AbstractOrientQuery query, DetachMode mode, Object[] values) {
-            return operations.count(query.createQuery(values), prepareParameters(parameters, values));
+            return operations.count(query.createQuery(values), query.prepareParameters(values));
+        }
+    }
+
+    /**
+     * Executes a {@link AbstractOrientQuery} to return whether any record matches. Only the record id of the first
+     * matching record is read.
+     * 
+     * @author Dzmitry_Naskou
+     */
+    static class ExistsExecution extends OrientQueryExecution {
+
+        /**
+         * Instantiates a new {@link ExistsExecution}.
+         *
+         * @param template the template
+         * @param parameters the parameters
+         */
+        public ExistsExecution(OrientOperations template, OrientParameters parameters) {
+            super(template, parameters);
+        }
+
+        /* (non-Javadoc)
+         * @see org.springframework.data.orient.repository.query.OrientQueryExecution#doExecute(org.springframework.data.orient.repository.query.AbstractOrientQuery, org.springframework.data.orient.object.repository.DetachMode, java.lang.Object[])
+         */
+        @Override
+        protected Object doExecute(AbstractOrientQuery query, DetachMode mode, Object[] values) {
+            List<?> result = operations.query(query.createQuery(values), query.prepareParameters(values));
+            
+            return !result.isEmpty();
+        }
+    }
+
+    /**
+     * Executes the command of a modifying {@link AbstractOrientQuery} on the server returning the number of affected
+     * records converted into the result type of the method.
+     * 
+     * @author Dzmitry_Naskou
+     */
+    static class ModifyingExecution extends OrientQueryExecution {
+        
+        /** The result type. */
+        private final Class<?> resultType;
+
+        /**
+         * Instantiates a new {@link ModifyingExecution}.
+         *
+         * @param template the template
+         * @param parameters the parameters
+         * @param resultType the result type of the method
+         */
+        public ModifyingExecution(OrientOperations template, OrientParameters parameters, Class<?> resultType) {
+            super(template, parameters);
+            this.resultType = resultType;
+        }
+
+        /* (non-Javadoc)
+         * @see org.springframework.data.orient.repository.query.OrientQueryExecution#doExecute(org.springframework.data.orient.repository.query.AbstractOrientQuery, org.springframework.data.orient.object.repository.DetachMode, java.lang.Object[])
+         */
+        @Override
+        protected Object doExecute(AbstractOrientQuery query, DetachMode mode, Object[] values) {
+            OCommandRequest command = operations.command(query.createCommand(values));
+            Object result = command.execute(query.prepareParameters(values));
+            
+            if (void.class.equals(resultType) || Void.class.equals(resultType)) {
+                return null;
+            }
+            
+            return new SimpleTypeConverter().convertIfNecessary(result, resultType);
         }
     }
 
@@ -148,36 +334,439 @@ public abstract class OrientQueryExecution {
         protected Object doExecute(AbstractOrientQuery query, DetachMode mode, Object[] values) {
             OrientParameterAccessor accessor = new OrientParametersParameterAccessor(parameters, values);
             
-            final Object[] queryParams = prepareParameters(parameters, values);
-            
-            Long total = operations.count(query.createCountQuery(values), queryParams);
+            long total = query.capTotal(operations.count(query.createCountQuery(values), query.prepareCountParameters(values)));
             
             Pageable pageable = accessor.getPageable();
             
             List<Object> content;
             
             if (pageable != null && total > pageable.getOffset()) {
-                content = operations.query(query.createQuery(values), mode, queryParams);
+                content = operations.query(query.createQuery(values), mode, query.prepareParameters(values));
             } else {
                 content = Collections.emptyList();
             }
             
-            return new PageImpl<Object>(content, pageable, total);
+            return new PageImpl<Object>(content, continueAfter(query, pageable, content), total);
         }
     }
     
-    Object[] prepareParameters(OrientParameters parameters, Object[] values) {
-        int index = 0;
-        List<Object> params = new ArrayList<Object>();
+    /**
+     * Executes the {@link AbstractOrientQuery} to return a {@link org.springframework.data.domain.Page} of entities
+     * running the count query on a pooled connection concurrently with the content query.
+     * <p>
+     * The pooled connection does not see the changes of a running transaction, so pages requested within a transaction
+     * are executed sequentially like by {@link PagedExecution}. The content query can not wait for the total, it is
+     * discarded if the total is not greater than the offset, and a content shorter than the page size determines the
+     * total, so the page is consistent either way.
+     * 
+     * @author Dzmitry_Naskou
+     */
+    static class ConcurrentPagedExecution extends PagedExecution {
+        
+        /** The executor to run the count query on. */
+        private final Executor executor;
         
-        for (OrientParameter parameter : parameters) {
-            if (parameter.isBindable()) {
-                params.add(values[index]);
+        /**
+         * Instantiates a new {@link ConcurrentPagedExecution}.
+         *
+         * @param template the orient object template
+         * @param parameters the parameters
+         * @param executor the executor to run the count query on
+         */
+        public ConcurrentPagedExecution(OrientOperations template, OrientParameters parameters, Executor executor) {
+            super(template, parameters);
+            this.executor = executor;
+        }
+
+        /* (non-Javadoc)
+         * @see org.springframework.data.orient.repository.query.OrientQueryExecution.PagedExecution#doExecute(org.springframework.data.orient.repository.query.AbstractOrientQuery, org.springframework.data.orient.object.repository.DetachMode, java.lang.Object[])
+         */
+        @Override
+        protected Object doExecute(AbstractOrientQuery query, DetachMode mode, Object[] values) {
+            OrientParameterAccessor accessor = new OrientParametersParameterAccessor(parameters, values);
+            Pageable pageable = accessor.getPageable();
+            
+            if (pageable == null || query.isBeyondMaxResults(pageable) || TransactionSynchronizationManager.isActualTransactionActive()) {
+                return super.doExecute(query, mode, values);
             }
             
-            ++index;
+            final OSQLQuery<?> countQuery = query.createCountQuery(values);
+            final Object[] countParams = query.prepareCountParameters(values);
+            
+            FutureTask<Long> future = new FutureTask<Long>(new PooledDatabaseCallable<Long>(operations.getDatabaseFactory(), new Callable<Long>() {
+                @Override
+                public Long call() {
+                    return operations.count(countQuery, countParams);
+                }
+            }));
+            
+            executor.execute(future);
+            
+            List<Object> content;
+            
+            try {
+                content = operations.query(query.createQuery(values), mode, query.prepareParameters(values));
+            } catch (RuntimeException e) {
+                future.cancel(true);
+                throw e;
+            }
+            
+            long total = query.capTotal(await(future));
+            
+            if (total <= pageable.getOffset()) {
+                content = Collections.emptyList();
+            } else if (content.size() < pageable.getPageSize()) {
+                total = pageable.getOffset() + content.size();
+            }
+            
+            return new PageImpl<Object>(content, continueAfter(query, pageable, content), total);
         }
+    }
+    
+    /**
+     * Executes the {@link AbstractOrientQuery} to return a {@link org.springframework.data.domain.Slice} of entities.
+     * The query fetches one more record than requested to find out whether there is a next slice, so no count query
+     * is run.
+     * 
+     * @author Dzmitry_Naskou
+     */
+    static class SliceExecution extends OrientQueryExecution {
         
-        return params.toArray();
+        /**
+         * Instantiates a new {@link SliceExecution}.
+         *
+         * @param template the orient object template
+         * @param parameters the parameters
+         */
+        public SliceExecution(OrientOperations template, OrientParameters parameters) {
+            super(template, parameters);
+        }
+
+        /* (non-Javadoc)
+         * @see org.springframework.data.orient.repository.query.OrientQueryExecution#doExecute(org.springframework.data.orient.repository.query.AbstractOrientQuery, org.springframework.data.orient.object.repository.DetachMode, java.lang.Object[])
+         */
+        @Override
+        protected Object doExecute(AbstractOrientQuery query, DetachMode mode, Object[] values) {
+            OrientParameterAccessor accessor = new OrientParametersParameterAccessor(parameters, values);
+            
+            Pageable pageable = accessor.getPageable();
+            
+            if (query.isBeyondMaxResults(pageable)) {
+                return new SliceImpl<Object>(Collections.emptyList(), pageable, false);
+            }
+            
+            List<Object> content = operations.query(query.createQuery(values), mode, query.prepareParameters(values));
+            
+            boolean hasNext = pageable != null && content.size() > pageable.getPageSize();
+            
+            if (hasNext) {
+                content = content.subList(0, pageable.getPageSize());
+            }
+            
+            return new SliceImpl<Object>(content, continueAfter(query, pageable, content), hasNext);
+        }
+    }
+    
+    /**
+     * Executes the {@link AbstractOrientQuery} to stream the entities through an
+     * {@link org.springframework.data.orient.repository.CloseableIterator} or a Java 8 {@code Stream}. The iterator or
+     * stream must be closed unless it is exhausted, otherwise the query is only cancelled after the stream idle timeout.
+     * 
+     * @author Dzmitry_Naskou
+     */
+    static class StreamExecution extends OrientQueryExecution {
+        
+        /** The query settings. */
+        private final OrientQuerySettings settings;
+        
+        /**
+         * Instantiates a new {@link StreamExecution}.
+         *
+         * @param template the orient object template
+         * @param parameters the parameters
+         * @param settings the query settings
+         */
+        public StreamExecution(OrientOperations template, OrientParameters parameters, OrientQuerySettings settings) {
+            super(template, parameters);
+            this.settings = settings;
+        }
+
+        /* (non-Javadoc)
+         * @see org.springframework.data.orient.repository.query.OrientQueryExecution#doExecute(org.springframework.data.orient.repository.query.AbstractOrientQuery, org.springframework.data.orient.object.repository.DetachMode, java.lang.Object[])
+         */
+        @Override
+        protected Object doExecute(AbstractOrientQuery query, DetachMode mode, Object[] values) {
+            OrientQueryMethod method = query.getQueryMethod();
+            
+            AsynchQueryIterator iterator = new AsynchQueryIterator(operations, method.getFetchPlan(), mode, settings.getStreamBufferSize(), settings.getStreamIdleTimeout())
+                    .start(settings.getExecutor(), query.createQuery(values), query.prepareParameters(values));
+            
+            return method.isJavaStreamQuery() ? Java8Support.toStream(iterator) : iterator;
+        }
+    }
+    
+    /**
+     * Executes the {@link AbstractOrientQuery} asynchronously on a pooled connection returning the future result of the
+     * given delegate execution. Attached entities would outlive the connection they are bound to, so they are detached
+     * unless a detach mode is given.
+     * 
+     * @author Dzmitry_Naskou
+     */
+    static class AsyncExecution extends OrientQueryExecution {
+        
+        /** The executor to run the query on. */
+        private final Executor executor;
+        
+        /** The execution to run asynchronously. */
+        private final OrientQueryExecution delegate;
+        
+        /**
+         * Instantiates a new {@link AsyncExecution}.
+         *
+         * @param template the orient object template
+         * @param parameters the parameters
+         * @param executor the executor to run the query on
+         * @param delegate the execution to run asynchronously
+         */
+        public AsyncExecution(OrientOperations template, OrientParameters parameters, Executor executor, OrientQueryExecution delegate) {
+            super(template, parameters);
+            this.executor = executor;
+            this.delegate = delegate;
+        }
+
+        /* (non-Javadoc)
+         * @see org.springframework.data.orient.repository.query.OrientQueryExecution#doExecute(org.springframework.data.orient.repository.query.AbstractOrientQuery, org.springframework.data.orient.object.repository.DetachMode, java.lang.Object[])
+         */
+        @Override
+        protected Object doExecute(final AbstractOrientQuery query, DetachMode mode, final Object[] values) {
+            final DetachMode detachMode = mode == DetachMode.NONE ? DetachMode.ENTITY : mode;
+            
+            Callable<Object> callable = new PooledDatabaseCallable<Object>(operations.getDatabaseFactory(), new Callable<Object>() {
+                @Override
+                public Object call() {
+                    return delegate.execute(query, detachMode, values);
+                }
+            });
+            
+            if (query.getQueryMethod().isCompletableFutureQuery()) {
+                return Java8Support.supplyAsync(callable, executor);
+            }
+            
+            ListenableFutureTask<Object> future = new ListenableFutureTask<Object>(callable);
+            executor.execute(future);
+            
+            return future;
+        }
+    }
+    
+    /**
+     * Executes the {@link AbstractOrientQuery} to publish the entities through a Reactive Streams {@code Publisher}.
+     * The query runs once the publisher is subscribed.
+     * 
+     * @author Dzmitry_Naskou
+     * @see OrientQueryPublisher
+     */
+    static class PublisherExecution extends OrientQueryExecution {
+        
+        /** The query settings. */
+        private final OrientQuerySettings settings;
+        
+        /**
+         * Instantiates a new {@link PublisherExecution}.
+         *
+         * @param template the orient object template
+         * @param parameters the parameters
+         * @param settings the query settings
+         */
+        public PublisherExecution(OrientOperations template, OrientParameters parameters, OrientQuerySettings settings) {
+            super(template, parameters);
+            this.settings = settings;
+        }
+
+        /* (non-Javadoc)
+         * @see org.springframework.data.orient.repository.query.OrientQueryExecution#doExecute(org.springframework.data.orient.repository.query.AbstractOrientQuery, org.springframework.data.orient.object.repository.DetachMode, java.lang.Object[])
+         */
+        @Override
+        protected Object doExecute(AbstractOrientQuery query, DetachMode mode, Object[] values) {
+            return new OrientQueryPublisher<Object>(operations, settings.getExecutor(), query.createQuery(values), query.prepareParameters(values), query.getQueryMethod().getFetchPlan(), mode, settings.getStreamIdleTimeout());
+        }
+    }
+    
+    /**
+     * Executes the given delegate execution caching its results by the arguments. Cached results are shared by the
+     * callers, so they are fully detached unless a detach mode is given, and every caller gets copies of the cached
+     * lists and entities.
+     * 
+     * @author Dzmitry_Naskou
+     * @see QueryResultCache
+     */
+    static class CachedExecution extends OrientQueryExecution {
+        
+        /** The execution to cache the results of. */
+        private final OrientQueryExecution delegate;
+        
+        /** The cache. */
+        private final QueryResultCache cache;
+        
+        /**
+         * Instantiates a new {@link CachedExecution}.
+         *
+         * @param template the orient object template
+         * @param parameters the parameters
+         * @param delegate the execution to cache the results of
+         * @param cache the cache
+         */
+        public CachedExecution(OrientOperations template, OrientParameters parameters, OrientQueryExecution delegate, QueryResultCache cache) {
+            super(template, parameters);
+            this.delegate = delegate;
+            this.cache = cache;
+        }
+
+        /* (non-Javadoc)
+         * @see org.springframework.data.orient.repository.query.OrientQueryExecution#doExecute(org.springframework.data.orient.repository.query.AbstractOrientQuery, org.springframework.data.orient.object.repository.DetachMode, java.lang.Object[])
+         */
+        @Override
+        protected Object doExecute(AbstractOrientQuery query, DetachMode mode, Object[] values) {
+            Object result = cache.get(values);
+            
+            if (result == QueryResultCache.MISS) {
+                long generation = cache.getGeneration();
+                
+                result = delegate.execute(query, mode == DetachMode.NONE ? DetachMode.ALL : mode, values);
+                cache.put(values, result, generation);
+            }
+            
+            return copy(result, query.getQueryMethod().getEntityInformation().getJavaType());
+        }
+        
+        /**
+         * Copies the given cached result, so changes of the caller do not leak into the cache. Lists and the entities
+         * are copied, the objects linked by the entities are shared.
+         *
+         * @param result the cached result
+         * @param entityType the type of the entities
+         * @return the copy
+         */
+        private Object copy(Object result, Class<?> entityType) {
+            if (result instanceof List) {
+                List<Object> copies = new ArrayList<Object>(((List<?>) result).size());
+                
+                for (Object element : (List<?>) result) {
+                    copies.add(copy(element, entityType));
+                }
+                
+                return copies;
+            }
+            
+            if (entityType.isInstance(result)) {
+                Object copy = BeanUtils.instantiateClass(result.getClass());
+                ReflectionUtils.shallowCopyFieldState(result, copy);
+                
+                return copy;
+            }
+            
+            return result;
+        }
+    }
+    
+    /**
+     * Converts the results of another execution into projections. The records are read as they are selected, so the
+     * delegate is executed without detaching them.
+     * 
+     * @author Dzmitry_Naskou
+     */
+    static class ProjectingExecution extends OrientQueryExecution {
+        
+        /** The execution to project the results of. */
+        private final OrientQueryExecution delegate;
+        
+        /** The projection. */
+        private final OrientProjection projection;
+        
+        /**
+         * Instantiates a new {@link ProjectingExecution}.
+         *
+         * @param template the orient object template
+         * @param parameters the parameters
+         * @param delegate the execution to project the results of
+         * @param projection the projection
+         */
+        public ProjectingExecution(OrientOperations template, OrientParameters parameters, OrientQueryExecution delegate, OrientProjection projection) {
+            super(template, parameters);
+            this.delegate = delegate;
+            this.projection = projection;
+        }
+
+        /* (non-Javadoc)
+         * @see org.springframework.data.orient.repository.query.OrientQueryExecution#doExecute(org.springframework.data.orient.repository.query.AbstractOrientQuery, org.springframework.data.orient.object.repository.DetachMode, java.lang.Object[])
+         */
+        @Override
+        protected Object doExecute(AbstractOrientQuery query, DetachMode mode, Object[] values) {
+            return projection.convertResult(delegate.execute(query, DetachMode.NONE, values));
+        }
+    }
+    
+    /**
+     * Decorates an execution to record it to the {@link QueryMetrics} and to log it when it is slow. Asynchronous,
+     * streamed and published executions are measured until their result is handed out, not until it is consumed.
+     * 
+     * @author Dzmitry_Naskou
+     */
+    static class InstrumentedExecution extends OrientQueryExecution {
+        
+        /** The execution to instrument. */
+        private final OrientQueryExecution delegate;
+        
+        /** The instrumentation. */
+        private final QueryInstrumentation instrumentation;
+        
+        /** The name the query method is recorded as. */
+        private final String name;
+        
+        /**
+         * Instantiates a new {@link InstrumentedExecution}.
+         *
+         * @param template the orient object template
+         * @param parameters the parameters
+         * @param delegate the execution to instrument
+         * @param instrumentation the instrumentation
+         * @param name the name the query method is recorded as
+         */
+        public InstrumentedExecution(OrientOperations template, OrientParameters parameters, OrientQueryExecution delegate, QueryInstrumentation instrumentation, String name) {
+            super(template, parameters);
+            this.delegate = delegate;
+            this.instrumentation = instrumentation;
+            this.name = name;
+        }
+
+        /* (non-Javadoc)
+         * @see org.springframework.data.orient.repository.query.OrientQueryExecution#doExecute(org.springframework.data.orient.repository.query.AbstractOrientQuery, org.springframework.data.orient.object.repository.DetachMode, java.lang.Object[])
+         */
+        @Override
+        protected Object doExecute(AbstractOrientQuery query, DetachMode mode, Object[] values) {
+            long start = System.nanoTime();
+            Object result = null;
+            Throwable failure = null;
+            
+            try {
+                result = delegate.execute(query, mode, values);
+                
+                return result;
+            } catch (RuntimeException e) {
+                failure = e;
+                throw e;
+            } catch (Error e) {
+                failure = e;
+                throw e;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                
+                instrumentation.record(name, elapsed, result, failure);
+                
+                if (instrumentation.isSlow(elapsed)) {
+                    instrumentation.logSlowQuery(name, elapsed, query.createQuery(values).getText(), query.prepareParameters(values));
+                }
+            }
+        }
     }
 }
@@ -16,9 +16,15 @@ public final class OrientQueryLookupStrategy {
     private abstract static class AbstractQueryLookupStrategy implements QueryLookupStrategy {
 
         private final OrientOperations operations;
+        
+        private final OrientQuerySettings settings;
+        
+        private final QueryPlanVerifier verifier;
 
-        public AbstractQueryLookupStrategy(OrientOperations template) {
+        public AbstractQueryLookupStrategy(OrientOperations template, OrientQuerySettings settings) {
             this.operations = template;
+            this.settings = settings;
+            this.verifier = new QueryPlanVerifier(template, settings.getQueryPlanVerification());
         }
 
         /*
@@ -30,10 +36,20 @@ public final class OrientQueryLookupStrategy {
          * org.springframework.data.repository.core.NamedQueries)
          */
         public final RepositoryQuery resolveQuery(java.lang.reflect.Method method, RepositoryMetadata metadata, NamedQueries namedQueries) {
-            return resolveQuery(new OrientQueryMethod(method, metadata), operations, namedQueries);
+            RepositoryQuery query = resolveQuery(new OrientQueryMethod(method, metadata), operations, namedQueries);
+            
+            if (query instanceof AbstractOrientQuery) {
+                verifier.verify((AbstractOrientQuery) query);
+            }
+            
+            return query;
         }
 
         protected abstract RepositoryQuery resolveQuery(OrientQueryMethod method, OrientOperations template, NamedQueries namedQueries);
+        
+        protected OrientQuerySettings getSettings() {
+            return settings;
+        }
     }
 
     private static class CreateQueryLookupStrategy extends AbstractQueryLookupStrategy {
@@ -42,9 +58,10 @@ public final class OrientQueryLookupStrategy {
          * Instantiates a new {@link CreateQueryLookupStrategy} lookup strategy.
          *
          * @param db the application database service
+         * @param settings the query settings
          */
-        public CreateQueryLookupStrategy(OrientOperations template) {
-            super(template);
+        public CreateQueryLookupStrategy(OrientOperations template, OrientQuerySettings settings) {
+            super(template, settings);
         }
 
         /* (non-Javadoc)
@@ -53,7 +70,7 @@ public final class OrientQueryLookupStrategy {
         @Override
         protected RepositoryQuery resolveQuery(OrientQueryMethod method, OrientOperations operations, NamedQueries namedQueries) {
             try {
-                return new PartTreeOrientQuery(method, operations);
+                return new PartTreeOrientQuery(method, operations, getSettings());
             } catch (IllegalArgumentException e) {
                 throw new IllegalArgumentException(String.format("Could not create query metamodel for method %s!", method.toString()), e);
             }
@@ -66,9 +83,10 @@ public final class OrientQueryLookupStrategy {
          * Instantiates a new {@link DeclaredQueryLookupStrategy} lookup strategy.
          *
          * @param template the application database service
+         * @param settings the query settings
          */
-        public DeclaredQueryLookupStrategy(OrientOperations template) {
-            super(template);
+        public DeclaredQueryLookupStrategy(OrientOperations template, OrientQuerySettings settings) {
+            super(template, settings);
         }
 
         /* (non-Javadoc)
@@ -79,7 +97,7 @@ public final class OrientQueryLookupStrategy {
             String query = method.getAnnotatedQuery();
 
             if (query != null) {
-                return new StringBasedOrientQuery(query, method, template);
+                return new StringBasedOrientQuery(query, method, template, getSettings());
             }
             
             throw new IllegalStateException(String.format("Did neither find a NamedQuery nor an annotated query for method %s!", method));
@@ -98,11 +116,12 @@ public final class OrientQueryLookupStrategy {
          * Instantiates a new {@link CreateIfNotFoundQueryLookupStrategy} lookup strategy.
          *
          * @param db the application database service
+         * @param settings the query settings
          */
-        public CreateIfNotFoundQueryLookupStrategy(OrientOperations db) {
-            super(db);
-            this.strategy = new DeclaredQueryLookupStrategy(db);
-            this.createStrategy = new CreateQueryLookupStrategy(db);
+        public CreateIfNotFoundQueryLookupStrategy(OrientOperations db, OrientQuerySettings settings) {
+            super(db, settings);
+            this.strategy = new DeclaredQueryLookupStrategy(db, settings);
+            this.createStrategy = new CreateQueryLookupStrategy(db, settings);
         }
 
         /* (non-Javadoc)
@@ -119,17 +138,21 @@ public final class OrientQueryLookupStrategy {
     }
 
     public static QueryLookupStrategy create(OrientOperations operations, Key key) {
+        return create(operations, key, new OrientQuerySettings());
+    }
+
+    public static QueryLookupStrategy create(OrientOperations operations, Key key, OrientQuerySettings settings) {
         if (key == null) {
-            return new CreateIfNotFoundQueryLookupStrategy(operations);
+            return new CreateIfNotFoundQueryLookupStrategy(operations, settings);
         }
 
         switch (key) {
             case CREATE:
-                return new CreateQueryLookupStrategy(operations);
+                return new CreateQueryLookupStrategy(operations, settings);
             case USE_DECLARED_QUERY:
-                return new DeclaredQueryLookupStrategy(operations);
+                return new DeclaredQueryLookupStrategy(operations, settings);
             case CREATE_IF_NOT_FOUND:
-                return new CreateIfNotFoundQueryLookupStrategy(operations);
+                return new CreateIfNotFoundQueryLookupStrategy(operations, settings);
             default:
                 throw new IllegalArgumentException(String.format("Unsupported query lookup strategy %s!", key));
         }
@@ -1,11 +1,20 @@
 package org.springframework.data.orient.repository.query;
 
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
 
+import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.data.orient.object.repository.Detach;
 import org.springframework.data.orient.object.repository.DetachMode;
+import org.springframework.data.orient.repository.CloseableIterator;
+import org.springframework.data.orient.repository.annotation.CachedQuery;
+import org.springframework.data.orient.repository.annotation.ConcurrentCount;
 import org.springframework.data.orient.repository.annotation.FetchPlan;
+import org.springframework.data.orient.repository.annotation.Modifying;
 import org.springframework.data.orient.repository.annotation.Query;
 import org.springframework.data.repository.core.RepositoryMetadata;
 import org.springframework.data.repository.query.QueryMethod;
@@ -18,12 +27,33 @@ import org.springframework.util.StringUtils;
  */
 public final class OrientQueryMethod extends QueryMethod {
 
+    /** The name of the Java 8 stream type. */
+    private static final String STREAM_TYPE = "java.util.stream.Stream";
+    
+    /** The name of the Java 8 completable future type. */
+    private static final String COMPLETABLE_FUTURE_TYPE = "java.util.concurrent.CompletableFuture";
+    
+    /** The name of the Reactive Streams publisher type. */
+    private static final String PUBLISHER_TYPE = "org.reactivestreams.Publisher";
+    
+    /** The pattern of the names of exists methods, e.g. {@code existsByEmail}. */
+    private static final Pattern EXISTS_PATTERN = Pattern.compile("^exists(\\p{Lu}.*?)??By");
+    
     /** The method. */
     private final Method method;
     
     /** The repository interface. */
     private final Class<?> repositoryInterface;
     
+    /** The fetch plan resolved from {@link FetchPlan}. */
+    private final String fetchPlan;
+    
+    /** The detach mode resolved from {@link Detach}. */
+    private final DetachMode detachMode;
+    
+    /** The projection of the returned elements, {@literal null} if the method returns entities. */
+    private final OrientProjection projection;
+    
     /**
      * Instantiates a new {@link OrientQueryMethod}.
      *
@@ -34,6 +64,9 @@ public final class OrientQueryMethod extends QueryMethod {
         super(method, metadata);
         this.method = method;
         this.repositoryInterface = metadata.getRepositoryInterface();
+        this.fetchPlan = resolveFetchPlan();
+        this.detachMode = resolveDetachMode();
+        this.projection = OrientProjection.of(resolveElementType(), getEntityInformation().getJavaType());
     }
     
     /* (non-Javadoc)
@@ -67,6 +100,92 @@ public final class OrientQueryMethod extends QueryMethod {
         return repositoryInterface;
     }
 
+    /**
+     * Returns whether the method streams its results as a {@link CloseableIterator} or a Java 8 {@code Stream}.
+     *
+     * @return true, if the method streams its results
+     */
+    public boolean isStreamQuery() {
+        Class<?> returnType = method.getReturnType();
+        
+        return CloseableIterator.class.equals(returnType) || isStreamType(returnType);
+    }
+    
+    /**
+     * Returns whether the method returns a Java 8 {@code Stream}. The check does not load the stream type.
+     *
+     * @return true, if the method returns a stream
+     */
+    boolean isJavaStreamQuery() {
+        return isStreamType(method.getReturnType());
+    }
+    
+    /**
+     * Returns whether the method returns a Reactive Streams {@code Publisher}. The check does not load the publisher
+     * type.
+     *
+     * @return true, if the method publishes its results
+     */
+    public boolean isPublisherQuery() {
+        return PUBLISHER_TYPE.equals(method.getReturnType().getName());
+    }
+    
+    /**
+     * Returns whether the method runs asynchronously returning a {@link Future}, a
+     * {@link org.springframework.util.concurrent.ListenableFuture} or a Java 8 {@code CompletableFuture}.
+     *
+     * @return true, if the method runs asynchronously
+     */
+    public boolean isAsyncQuery() {
+        return Future.class.isAssignableFrom(method.getReturnType());
+    }
+    
+    /**
+     * Returns whether the method returns a Java 8 {@code CompletableFuture}. The check does not load the future type.
+     *
+     * @return true, if the method returns a completable future
+     */
+    boolean isCompletableFutureQuery() {
+        return COMPLETABLE_FUTURE_TYPE.equals(method.getReturnType().getName());
+    }
+    
+    /**
+     * Gets the type of the result wrapped into the future returned by an asynchronous method.
+     *
+     * @return the result type
+     * @see #isAsyncQuery()
+     */
+    Class<?> getAsyncResultType() {
+        return ResolvableType.forMethodReturnType(method).as(Future.class).getGeneric(0).resolve(Object.class);
+    }
+    
+    /**
+     * Returns whether the method checks whether any record matches, e.g. {@code existsByEmail}.
+     *
+     * @return true, if the method is an exists query
+     */
+    boolean isExistsQuery() {
+        return EXISTS_PATTERN.matcher(getName()).find();
+    }
+    
+    /**
+     * Returns whether the method runs a modifying statement.
+     *
+     * @return true, if the method is annotated with {@link Modifying}
+     */
+    boolean isModifyingQuery() {
+        return AnnotationUtils.findAnnotation(method, Modifying.class) != null;
+    }
+    
+    /**
+     * Gets the projection of the returned elements.
+     *
+     * @return the projection or {@literal null} if the method returns entities
+     */
+    OrientProjection getProjection() {
+        return projection;
+    }
+    
     /**
      * Returns whether the method has an annotated query.
      * 
@@ -87,6 +206,17 @@ public final class OrientQueryMethod extends QueryMethod {
         return StringUtils.hasText(query) ? query : null;
     }
     
+    /**
+     * Returns the count query declared in a {@link Query} annotation or {@literal null} if neither the annotation found
+     * nor the attribute was specified.
+     *
+     * @return the count query
+     */
+    String getAnnotatedCountQuery() {
+        Query query = getQueryAnnotation();
+        return query != null && StringUtils.hasText(query.countQuery()) ? query.countQuery() : null;
+    }
+    
     /**
      * Returns the {@link Query} annotation that is applied to the method or {@code null} if none available.
      * 
@@ -101,9 +231,43 @@ public final class OrientQueryMethod extends QueryMethod {
     }
     
     String getFetchPlan() {
-        String plan = (String) AnnotationUtils.getValue(getFetchPlanAnnotation());
+        return fetchPlan;
+    }
+    
+    ConcurrentCount getConcurrentCountAnnotation() {
+        return method.getAnnotation(ConcurrentCount.class);
+    }
+    
+    /**
+     * Checks whether the count query of the paged method runs concurrently with its content query.
+     *
+     * @param defaultValue the value to use if the method is not annotated with {@link ConcurrentCount}
+     * @return true, if the count query runs concurrently
+     */
+    boolean isConcurrentCount(boolean defaultValue) {
+        ConcurrentCount annotation = getConcurrentCountAnnotation();
         
-        return StringUtils.hasText(plan) ? plan : null;
+        return annotation == null ? defaultValue : annotation.value();
+    }
+    
+    CachedQuery getCachedQueryAnnotation() {
+        return method.getAnnotation(CachedQuery.class);
+    }
+    
+    /**
+     * Finds the given annotation on the method or the repository interface.
+     *
+     * @param annotationType the annotation type
+     * @return the annotation or {@literal null} if not found
+     */
+    <A extends Annotation> A findAnnotation(Class<A> annotationType) {
+        A annotation = AnnotationUtils.findAnnotation(method, annotationType);
+        
+        if (annotation == null) {
+            annotation = AnnotationUtils.findAnnotation(repositoryInterface, annotationType);
+        }
+        
+        return annotation;
     }
     
     Detach getDetachAnnotation() {
@@ -111,8 +275,42 @@ public final class OrientQueryMethod extends QueryMethod {
     }
     
     DetachMode getDetachMode() {
+        return detachMode;
+    }
+    
+    private static boolean isStreamType(Class<?> type) {
+        return STREAM_TYPE.equals(type.getName());
+    }
+    
+    private String resolveFetchPlan() {
+        String plan = (String) AnnotationUtils.getValue(getFetchPlanAnnotation());
+        
+        return StringUtils.hasText(plan) ? plan : null;
+    }
+    
+    private DetachMode resolveDetachMode() {
         DetachMode mode = (DetachMode) AnnotationUtils.getValue(getDetachAnnotation());
         
         return mode == null ? DetachMode.NONE : mode;
     }
+    
+    private Class<?> resolveElementType() {
+        ResolvableType type = ResolvableType.forMethodReturnType(method);
+        
+        if (isAsyncQuery()) {
+            type = type.as(Future.class).getGeneric(0);
+        } else if (isPublisherQuery() || isJavaStreamQuery()) {
+            type = type.getGeneric(0);
+        }
+        
+        Class<?> rawType = type.resolve(Object.class);
+        
+        if (Iterable.class.isAssignableFrom(rawType)) {
+            type = type.as(Iterable.class).getGeneric(0);
+        } else if (Iterator.class.isAssignableFrom(rawType)) {
+            type = type.as(Iterator.class).getGeneric(0);
+        }
+        
+        return type.resolve(Object.class);
+    }
 }
@@ -0,0 +1,322 @@
+package org.springframework.data.orient.repository.query;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.orient.core.OrientOperations;
+import org.springframework.data.orient.object.repository.DetachMode;
+
+import com.orientechnologies.orient.core.command.OCommandResultListener;
+import com.orientechnologies.orient.core.sql.query.OSQLAsynchQuery;
+import com.orientechnologies.orient.core.sql.query.OSQLQuery;
+
+/**
+ * A {@link Publisher} of the results of a query. Each subscription runs the asynchronous version of the query on a
+ * pooled connection once the first demand is signalled. The records are emitted as OrientDB produces them, and the
+ * result listener waits while there is no outstanding demand, so the query is paused instead of buffering the results.
+ * Cancelling the subscription stops the query. A subscriber that stops requesting for the demand timeout is signalled
+ * a {@link QueryTimeoutException} and the query is stopped, so the subscription does not hold the executor thread and
+ * the pooled connection forever.
+ *
+ * @author Dzmitry_Naskou
+ * @param <T> the type of the published elements
+ */
+public class OrientQueryPublisher<T> implements Publisher<T> {
+
+    /** The orient operations. */
+    private final OrientOperations operations;
+    
+    /** The executor to run the query on. */
+    private final Executor executor;
+    
+    /** The query. */
+    private final OSQLQuery<?> query;
+    
+    /** The values to bind. */
+    private final Object[] values;
+    
+    /** The fetch plan. */
+    private final String fetchPlan;
+    
+    /** The detach mode. */
+    private final DetachMode detachMode;
+    
+    /** The time in milliseconds the query waits for demand before it is cancelled. */
+    private final long demandTimeout;
+    
+    /**
+     * Instantiates a new {@link OrientQueryPublisher}. Entities are emitted after their connection is returned to the
+     * pool, so they are detached unless a detach mode is given.
+     *
+     * @param operations the orient operations
+     * @param executor the executor to run the query on
+     * @param query the query
+     * @param values the values to bind
+     * @param fetchPlan the fetch plan, can be {@literal null}
+     * @param detachMode the detach mode
+     * @param demandTimeout the time in milliseconds the query waits for demand before it is cancelled, non-positive
+     *            to wait until the subscription is cancelled
+     */
+    public OrientQueryPublisher(OrientOperations operations, Executor executor, OSQLQuery<?> query, Object[] values, String fetchPlan, DetachMode detachMode, long demandTimeout) {
+        super();
+        this.operations = operations;
+        this.executor = executor;
+        this.query = query;
+        this.values = values;
+        this.fetchPlan = fetchPlan;
+        this.detachMode = detachMode == DetachMode.NONE ? DetachMode.ENTITY : detachMode;
+        this.demandTimeout = demandTimeout;
+    }
+    
+    /* (non-Javadoc)
+     * @see org.reactivestreams.Publisher#subscribe(org.reactivestreams.Subscriber)
+     */
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber must not be null!");
+        }
+        
+        subscriber.onSubscribe(new QuerySubscription(subscriber));
+    }
+    
+    /**
+     * Converts the given record produced by the query into the element to publish.
+     *
+     * @param record the record
+     * @return the element
+     */
+    protected Object convert(Object record) {
+        return OrientQueryExecution.toEntity(operations, record, fetchPlan, detachMode);
+    }
+    
+    /**
+     * The subscription running the query and passing its results to the subscriber as requested.
+     */
+    private class QuerySubscription implements Subscription, OCommandResultListener {
+        
+        /** The subscriber. */
+        private final Subscriber<? super T> subscriber;
+        
+        /** The lock guarding the demand. */
+        private final Object lock = new Object();
+        
+        /** The outstanding demand. */
+        private long demand;
+        
+        /** Whether the query was started. */
+        private boolean started;
+        
+        /** Whether the query has to stop, i.e. the subscription was cancelled or terminated. */
+        private volatile boolean cancelled;
+        
+        /** Whether the subscription was cancelled or a terminal signal was sent, so no more signals are sent. */
+        private final AtomicBoolean terminated = new AtomicBoolean();
+        
+        /** The error of an invalid request left to the thread of the query to signal. */
+        private Throwable error;
+        
+        /**
+         * Instantiates a new {@link QuerySubscription}.
+         *
+         * @param subscriber the subscriber
+         */
+        public QuerySubscription(Subscriber<? super T> subscriber) {
+            super();
+            this.subscriber = subscriber;
+        }
+        
+        /* (non-Javadoc)
+         * @see org.reactivestreams.Subscription#request(long)
+         */
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                reject(new IllegalArgumentException("Requested number of elements must be positive!"));
+                return;
+            }
+            
+            boolean start;
+            
+            synchronized (lock) {
+                if (cancelled) {
+                    return;
+                }
+                
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                start = !started;
+                started = true;
+                lock.notifyAll();
+            }
+            
+            if (start) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        execute();
+                    }
+                });
+            }
+        }
+        
+        /* (non-Javadoc)
+         * @see org.reactivestreams.Subscription#cancel()
+         */
+        @Override
+        public void cancel() {
+            terminated.set(true);
+            stop();
+        }
+        
+        /* (non-Javadoc)
+         * @see com.orientechnologies.orient.core.command.OCommandResultListener#result(java.lang.Object)
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean result(Object record) {
+            Boolean demanded = awaitDemand();
+            
+            if (demanded == null) {
+                fail(new QueryTimeoutException(String.format("Query was cancelled since no elements were requested for %d ms!", demandTimeout)));
+                return false;
+            }
+            
+            if (!demanded) {
+                return false;
+            }
+            
+            T element;
+            
+            try {
+                element = (T) convert(record);
+            } catch (RuntimeException e) {
+                fail(e);
+                return false;
+            }
+            
+            subscriber.onNext(element);
+            
+            return !cancelled;
+        }
+        
+        /* (non-Javadoc)
+         * @see com.orientechnologies.orient.core.command.OCommandResultListener#end()
+         */
+        @Override
+        public void end() {
+        }
+        
+        private void execute() {
+            final OSQLAsynchQuery<Object> asynchQuery = QueryUtils.toAsynchQuery(query, this);
+            
+            Throwable failure = null;
+            
+            try {
+                new PooledDatabaseCallable<Object>(operations.getDatabaseFactory(), new Callable<Object>() {
+                    @Override
+                    public Object call() {
+                        return operations.query(asynchQuery, values);
+                    }
+                }).call();
+            } catch (Exception e) {
+                failure = e;
+            }
+            
+            synchronized (lock) {
+                if (error != null) {
+                    failure = error;
+                }
+            }
+            
+            if (failure != null) {
+                fail(failure);
+            } else {
+                stop();
+                
+                if (terminated.compareAndSet(false, true)) {
+                    subscriber.onComplete();
+                }
+            }
+        }
+        
+        /**
+         * Signals the error of an invalid request. Once the query is started the elements are emitted on its thread, so
+         * the error is left to that thread to keep the signals serial.
+         *
+         * @param e the error
+         */
+        private void reject(Throwable e) {
+            synchronized (lock) {
+                if (started) {
+                    error = e;
+                    cancelled = true;
+                    lock.notifyAll();
+                    return;
+                }
+                
+                started = true;
+            }
+            
+            fail(e);
+        }
+        
+        private void stop() {
+            synchronized (lock) {
+                cancelled = true;
+                lock.notifyAll();
+            }
+        }
+        
+        /**
+         * Waits for the demand of the subscriber and consumes one element of it.
+         *
+         * @return true, if an element can be emitted, false if the subscription was cancelled, {@literal null} if the
+         *         demand timeout elapsed
+         */
+        private Boolean awaitDemand() {
+            synchronized (lock) {
+                long deadline = System.currentTimeMillis() + demandTimeout;
+                
+                try {
+                    while (demand == 0 && !cancelled) {
+                        long remaining = deadline - System.currentTimeMillis();
+                        
+                        if (demandTimeout <= 0) {
+                            lock.wait();
+                        } else if (remaining > 0) {
+                            lock.wait(remaining);
+                        } else {
+                            return null;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancelled = true;
+                }
+                
+                if (cancelled) {
+                    return false;
+                }
+                
+                if (demand != Long.MAX_VALUE) {
+                    demand--;
+                }
+                
+                return true;
+            }
+        }
+        
+        private void fail(Throwable e) {
+            stop();
+            
+            if (terminated.compareAndSet(false, true)) {
+                subscriber.onError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package org.springframework.data.orient.repository.query;
+
+import java.util.concurrent.Executor;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.orient.core.OrientWriteBehindBuffer;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * The settings shared by all the queries of a repository.
+ *
+ * @author Dzmitry_Naskou
+ */
+public class OrientQuerySettings {
+
+    /** The default capacity of the queue streamed results are handed off through. */
+    public static final int DEFAULT_STREAM_BUFFER_SIZE = 256;
+    
+    /** The default time in milliseconds a streaming query waits for its results to be consumed before it is cancelled. */
+    public static final long DEFAULT_STREAM_IDLE_TIMEOUT = 60000;
+    
+    /** The default maximum number of records read or written by a single statement of the batch operations. */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    
+    /** The executor used when no executor is configured. */
+    private static final Executor DEFAULT_EXECUTOR = createDefaultExecutor();
+    
+    /** The executor to run queries on pooled connections. */
+    private Executor executor = DEFAULT_EXECUTOR;
+    
+    /** Whether paged queries run their count query concurrently by default. */
+    private boolean concurrentCount;
+    
+    /** The capacity of the queue streamed results are handed off through. */
+    private int streamBufferSize = DEFAULT_STREAM_BUFFER_SIZE;
+    
+    /** The time in milliseconds a streaming query waits for its results to be consumed before it is cancelled. */
+    private long streamIdleTimeout = DEFAULT_STREAM_IDLE_TIMEOUT;
+    
+    /** The manager of the query result caches. */
+    private QueryCacheManager cacheManager = new QueryCacheManager();
+    
+    /** The verification of the query plans when the queries are created. */
+    private QueryPlanVerification queryPlanVerification = QueryPlanVerification.NONE;
+    
+    /** The metrics the executions of the repository methods are recorded to, {@literal null} if not recorded. */
+    private QueryMetrics metrics;
+    
+    /** The execution time in milliseconds above which repository methods are logged, negative to disable the log. */
+    private long slowQueryThreshold = -1;
+    
+    /** The maximum number of records read or written by a single statement of the batch operations. */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    
+    /** The buffer the updates of the entities are written behind with, {@literal null} to write them immediately. */
+    private OrientWriteBehindBuffer writeBehindBuffer;
+    
+    /** The transaction manager of the repositories, {@literal null} to use one over the database factory. */
+    private PlatformTransactionManager transactionManager;
+    
+    /**
+     * Gets the executor to run queries on pooled connections.
+     *
+     * @return the executor
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+    
+    /**
+     * Sets the executor to run queries on pooled connections.
+     *
+     * @param executor the new executor, {@literal null} for the default one
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor == null ? DEFAULT_EXECUTOR : executor;
+    }
+    
+    /**
+     * Checks whether paged queries run their count query concurrently by default.
+     *
+     * @return true, if the count query runs concurrently
+     */
+    public boolean isConcurrentCount() {
+        return concurrentCount;
+    }
+    
+    /**
+     * Sets whether paged queries run their count query concurrently by default.
+     *
+     * @param concurrentCount whether the count query runs concurrently
+     */
+    public void setConcurrentCount(boolean concurrentCount) {
+        this.concurrentCount = concurrentCount;
+    }
+    
+    /**
+     * Gets the capacity of the queue streamed results are handed off through.
+     *
+     * @return the stream buffer size
+     */
+    public int getStreamBufferSize() {
+        return streamBufferSize;
+    }
+    
+    /**
+     * Sets the capacity of the queue streamed results are handed off through.
+     *
+     * @param streamBufferSize the new stream buffer size
+     */
+    public void setStreamBufferSize(int streamBufferSize) {
+        this.streamBufferSize = streamBufferSize;
+    }
+    
+    /**
+     * Gets the time in milliseconds a streaming query waits for its results to be consumed before it is cancelled.
+     * Publishers wait as long for the demand of their subscribers.
+     *
+     * @return the stream idle timeout
+     */
+    public long getStreamIdleTimeout() {
+        return streamIdleTimeout;
+    }
+    
+    /**
+     * Sets the time in milliseconds a streaming query waits for its results to be consumed before it is cancelled, so
+     * an iterator or stream that is abandoned without being closed does not hold its connection forever. Publishers wait
+     * as long for the demand of their subscribers.
+     *
+     * @param streamIdleTimeout the new stream idle timeout, non-positive to wait until the results are closed
+     *            or the subscription is cancelled
+     */
+    public void setStreamIdleTimeout(long streamIdleTimeout) {
+        this.streamIdleTimeout = streamIdleTimeout;
+    }
+    
+    /**
+     * Gets the manager of the query result caches.
+     *
+     * @return the cache manager
+     */
+    public QueryCacheManager getCacheManager() {
+        return cacheManager;
+    }
+    
+    /**
+     * Sets the manager of the query result caches.
+     *
+     * @param cacheManager the new cache manager
+     */
+    public void setCacheManager(QueryCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+    
+    /**
+     * Gets the verification of the query plans when the queries are created.
+     *
+     * @return the query plan verification
+     */
+    public QueryPlanVerification getQueryPlanVerification() {
+        return queryPlanVerification;
+    }
+    
+    /**
+     * Sets the verification of the query plans when the queries are created.
+     *
+     * @param queryPlanVerification the new query plan verification
+     */
+    public void setQueryPlanVerification(QueryPlanVerification queryPlanVerification) {
+        this.queryPlanVerification = queryPlanVerification;
+    }
+    
+    /**
+     * Gets the metrics the executions of the repository methods are recorded to.
+     *
+     * @return the metrics or {@literal null} if the executions are not recorded
+     */
+    public QueryMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Sets the metrics the executions of the repository methods are recorded to.
+     *
+     * @param metrics the new metrics, {@literal null} to not record the executions
+     */
+    public void setMetrics(QueryMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    /**
+     * Gets the execution time in milliseconds above which repository methods are logged with their query and arguments.
+     *
+     * @return the slow query threshold, negative if slow queries are not logged
+     */
+    public long getSlowQueryThreshold() {
+        return slowQueryThreshold;
+    }
+    
+    /**
+     * Sets the execution time in milliseconds above which repository methods are logged with their query and arguments.
+     *
+     * @param slowQueryThreshold the new slow query threshold, negative to not log slow queries
+     */
+    public void setSlowQueryThreshold(long slowQueryThreshold) {
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+    
+    /**
+     * Gets the maximum number of records read or written by a single statement of the batch operations.
+     *
+     * @return the batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    /**
+     * Sets the maximum number of records read or written by a single statement of the batch operations.
+     *
+     * @param batchSize the new batch size
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+    
+    /**
+     * Gets the buffer the repositories write the updates of the entities behind with.
+     *
+     * @return the write-behind buffer or {@literal null} if the updates are written immediately
+     */
+    public OrientWriteBehindBuffer getWriteBehindBuffer() {
+        return writeBehindBuffer;
+    }
+    
+    /**
+     * Sets the buffer the repositories write the updates of the entities behind with.
+     *
+     * @param writeBehindBuffer the new write-behind buffer, {@literal null} to write the updates immediately
+     */
+    public void setWriteBehindBuffer(OrientWriteBehindBuffer writeBehindBuffer) {
+        this.writeBehindBuffer = writeBehindBuffer;
+    }
+    
+    /**
+     * Gets the transaction manager the repositories run their own transactions with.
+     *
+     * @return the transaction manager or {@literal null} if none is configured
+     */
+    public PlatformTransactionManager getTransactionManager() {
+        return transactionManager;
+    }
+    
+    /**
+     * Sets the transaction manager the repositories run their own transactions with, e.g. the chunks of the batch
+     * operations.
+     *
+     * @param transactionManager the new transaction manager, {@literal null} to use an
+     *            {@link org.springframework.orm.orient.OrientTransactionManager} over the database factory
+     */
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+    
+    /**
+     * Checks whether the executions of the repository methods are instrumented, i.e. recorded or logged when slow.
+     *
+     * @return true, if the executions are instrumented
+     */
+    public boolean isInstrumented() {
+        return metrics != null || slowQueryThreshold >= 0;
+    }
+    
+    private static Executor createDefaultExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("orient-query-");
+        executor.setDaemon(true);
+        
+        return executor;
+    }
+}
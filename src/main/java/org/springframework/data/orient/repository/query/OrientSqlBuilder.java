@@ -0,0 +1,247 @@
+package org.springframework.data.orient.repository.query;
+
+import java.util.regex.Pattern;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort.Order;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Lightweight builder for OrientDB SQL queries. Renders OSQL directly into a {@link StringBuilder} without any
+ * dialect translation, so sources like {@code cluster:name}, record attributes like {@code @rid} and dot-paths
+ * are written as is.
+ *
+ * @author Dzmitry_Naskou
+ */
+public final class OrientSqlBuilder {
+
+    /** The positional parameter placeholder. */
+    public static final String PARAMETER = "?";
+    
+    /** The pattern of properties allowed in sort orders, i.e. attributes and dot-paths. */
+    private static final Pattern SORT_PROPERTY = Pattern.compile("@?[\\w$]+(\\.@?[\\w$]+)*");
+    
+    /** The default capacity of the buffer. */
+    private static final int DEFAULT_CAPACITY = 128;
+    
+    /** The buffers reused by {@link #reuse()}. */
+    private static final ThreadLocal<StringBuilder> BUFFERS = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(DEFAULT_CAPACITY);
+        }
+    };
+    
+    /** The buffer. */
+    private final StringBuilder buffer;
+    
+    /**
+     * Instantiates a new {@link OrientSqlBuilder} with a new buffer.
+     */
+    public OrientSqlBuilder() {
+        this(new StringBuilder(DEFAULT_CAPACITY));
+    }
+    
+    /**
+     * Instantiates a new {@link OrientSqlBuilder} rendering into the given buffer. The buffer is cleared.
+     *
+     * @param buffer the buffer
+     */
+    public OrientSqlBuilder(StringBuilder buffer) {
+        super();
+        this.buffer = buffer;
+        this.buffer.setLength(0);
+    }
+    
+    /**
+     * Returns a builder rendering into a buffer bound to the current thread. The builder must not be used anymore
+     * after the next call of this method on the same thread.
+     *
+     * @return the builder
+     */
+    public static OrientSqlBuilder reuse() {
+        return new OrientSqlBuilder(BUFFERS.get());
+    }
+    
+    /**
+     * Renders the positional parameter placeholder.
+     *
+     * @return the parameter placeholder
+     */
+    public static String parameter() {
+        return PARAMETER;
+    }
+    
+    /**
+     * Renders the named parameter placeholder.
+     *
+     * @param name the parameter name
+     * @return the parameter placeholder
+     */
+    public static String parameter(String name) {
+        return ":" + name;
+    }
+    
+    /**
+     * Starts the select of whole records.
+     *
+     * @return the builder
+     */
+    public OrientSqlBuilder select() {
+        buffer.append("select");
+        return this;
+    }
+    
+    /**
+     * Starts the select of the given projections.
+     *
+     * @param projections the projections
+     * @return the builder
+     */
+    public OrientSqlBuilder select(String... projections) {
+        select();
+        
+        for (int i = 0; i < projections.length; i++) {
+            buffer.append(i == 0 ? " " : ", ").append(projections[i]);
+        }
+        
+        return this;
+    }
+    
+    /**
+     * Starts the delete of records.
+     *
+     * @return the builder
+     */
+    public OrientSqlBuilder delete() {
+        buffer.append("delete");
+        return this;
+    }
+    
+    /**
+     * Starts the select of the records count.
+     *
+     * @return the builder
+     */
+    public OrientSqlBuilder selectCount() {
+        return select("count(*)");
+    }
+    
+    /**
+     * Appends the source (class name, {@code cluster:name} or record id list) to select from.
+     *
+     * @param source the source
+     * @return the builder
+     */
+    public OrientSqlBuilder from(String source) {
+        buffer.append(" from ").append(source);
+        return this;
+    }
+    
+    /**
+     * Appends the where clause if the given condition is not empty.
+     *
+     * @param condition the condition
+     * @return the builder
+     */
+    public OrientSqlBuilder where(String condition) {
+        if (StringUtils.hasText(condition)) {
+            buffer.append(" where ").append(condition);
+        }
+        
+        return this;
+    }
+    
+    /**
+     * Appends the order by clause if the given {@link Sort} has any orders.
+     *
+     * @param sort the sort
+     * @return the builder
+     */
+    public OrientSqlBuilder orderBy(Sort sort) {
+        if (sort == null) {
+            return this;
+        }
+        
+        boolean first = true;
+        
+        for (Order order : sort) {
+            buffer.append(first ? " order by " : ", ").append(sortProperty(order.getProperty())).append(order.getDirection() == Direction.ASC ? " asc" : " desc");
+            first = false;
+        }
+        
+        return this;
+    }
+    
+    /**
+     * Checks the given property of a sort order. Sort properties are rendered into the query as is, since they can not
+     * be bound as parameters, so only attributes and dot-paths are allowed.
+     *
+     * @param property the property
+     * @return the property
+     * @throws IllegalArgumentException if the property is not an attribute or a dot-path
+     */
+    public static String sortProperty(String property) {
+        Assert.isTrue(property != null && SORT_PROPERTY.matcher(property).matches(), String.format("Invalid sort property %s!", property));
+        
+        return property;
+    }
+    
+    /**
+     * Appends the skip clause if the given number of records is positive.
+     *
+     * @param skip the number of records to skip
+     * @return the builder
+     */
+    public OrientSqlBuilder skip(int skip) {
+        if (skip > 0) {
+            buffer.append(" skip ").append(skip);
+        }
+        
+        return this;
+    }
+    
+    /**
+     * Appends the limit clause if the given number of records is positive.
+     *
+     * @param limit the maximum number of records
+     * @return the builder
+     */
+    public OrientSqlBuilder limit(int limit) {
+        if (limit > 0) {
+            buffer.append(" limit ").append(limit);
+        }
+        
+        return this;
+    }
+    
+    /**
+     * Appends the given OSQL fragment as is.
+     *
+     * @param sql the fragment
+     * @return the builder
+     */
+    public OrientSqlBuilder append(CharSequence sql) {
+        buffer.append(sql);
+        return this;
+    }
+    
+    /**
+     * Returns the rendered query.
+     *
+     * @return the query
+     */
+    public String build() {
+        return buffer.toString();
+    }
+    
+    /* (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return build();
+    }
+}
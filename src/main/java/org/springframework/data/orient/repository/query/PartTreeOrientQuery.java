@@ -1,7 +1,10 @@
 package org.springframework.data.orient.repository.query;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.orient.core.OrientObjectTemplate;
 import org.springframework.data.orient.core.OrientOperations;
+import org.springframework.data.orient.repository.KeysetPageRequest;
 import org.springframework.data.repository.query.parser.PartTree;
 
 import com.orientechnologies.orient.core.sql.query.OSQLQuery;
@@ -14,6 +17,9 @@ import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
  */
 public class PartTreeOrientQuery extends AbstractOrientQuery {
     
+    /** The value used in place of the real arguments when compiling the query. */
+    private static final Object PLACEHOLDER = new Object();
+    
     /** The domain class. */
     private final Class<?> domainClass;
     
@@ -25,6 +31,15 @@ public class PartTreeOrientQuery extends AbstractOrientQuery {
     
     private final OrientQueryMethod method;
     
+    /** The query compiled at creation time, {@literal null} if the query depends on the arguments. */
+    private final String query;
+    
+    /** The count query compiled at creation time, {@literal null} if the query depends on the arguments. */
+    private final String countQuery;
+    
+    /** The bindings of the query parameters. */
+    private final OrientParameterBinding[] bindings;
+    
     /**
      * Instantiates a new {@link PartTreeOrientQuery} from given {@link OrientQueryMethod} and {@link OrientObjectTemplate}.
      *
@@ -32,12 +47,41 @@ public class PartTreeOrientQuery extends AbstractOrientQuery {
      * @param operations the orient object template
      */
     public PartTreeOrientQuery(OrientQueryMethod method, OrientOperations operations) {
-        super(method, operations);
+        this(method, operations, new OrientQuerySettings());
+    }
+    
+    /**
+     * Instantiates a new {@link PartTreeOrientQuery} from given {@link OrientQueryMethod} and {@link OrientObjectTemplate}.
+     *
+     * @param method the query method
+     * @param operations the orient object template
+     * @param settings the query settings
+     */
+    public PartTreeOrientQuery(OrientQueryMethod method, OrientOperations operations, OrientQuerySettings settings) {
+        super(method, operations, settings);
 
         this.method = method;
         this.domainClass = method.getEntityInformation().getJavaType();
-        this.tree = new PartTree(method.getName(), domainClass);
+        this.tree = new PartTree(toTreeSource(method), domainClass);
         this.parameters = method.getParameters();
+        
+        if (tree.isDelete() && (method.isCollectionQuery() || method.isPageQuery() || method.isSliceQuery())) {
+            throw new IllegalStateException(String.format("Delete method %s must return the number of deleted records or void!", method));
+        }
+        
+        OrientParameterAccessor accessor = new OrientParametersParameterAccessor(parameters, placeholders(parameters));
+        OrientQueryCreator creator = new OrientQueryCreator(tree, method, accessor);
+        String compiledQuery = creator.createQuery();
+        
+        this.bindings = creator.getBindings().toArray(new OrientParameterBinding[0]);
+        
+        if (parameters.hasDynamicParameters()) {
+            this.query = null;
+            this.countQuery = null;
+        } else {
+            this.query = compiledQuery;
+            this.countQuery = new OrientCountQueryCreator(tree, method, accessor).createQuery();
+        }
     }
 
     /* (non-Javadoc)
@@ -46,6 +90,10 @@ public class PartTreeOrientQuery extends AbstractOrientQuery {
     @Override
     @SuppressWarnings("rawtypes")
     protected OSQLQuery doCreateQuery(Object[] values) {
+        if (query != null) {
+            return new OSQLSynchQuery(query);
+        }
+        
         OrientParameterAccessor accessor = new OrientParametersParameterAccessor(parameters, values);
         
         OrientQueryCreator creator = new OrientQueryCreator(tree, method, accessor);
@@ -59,6 +107,10 @@ public class PartTreeOrientQuery extends AbstractOrientQuery {
     @Override
     @SuppressWarnings("rawtypes")
     protected OSQLQuery doCreateCountQuery(Object[] values) {
+        if (countQuery != null) {
+            return new OSQLSynchQuery(countQuery);
+        }
+        
         OrientParameterAccessor accessor = new OrientParametersParameterAccessor(parameters, values);
         
         OrientQueryCreator creator = new OrientCountQueryCreator(tree, method, accessor);
@@ -66,6 +118,71 @@ public class PartTreeOrientQuery extends AbstractOrientQuery {
         return new OSQLSynchQuery(creator.createQuery());
     }
 
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.repository.query.AbstractOrientQuery#prepareParameters(java.lang.Object[])
+     */
+    @Override
+    protected Object[] prepareParameters(Object[] values) {
+        Object[] result = prepareCountParameters(values);
+        Pageable pageable = new OrientParametersParameterAccessor(parameters, values).getPageable();
+        
+        if (pageable instanceof KeysetPageRequest && ((KeysetPageRequest) pageable).getToken() != null) {
+            Object[] seekValues = QueryUtils.toSeekValues(((KeysetPageRequest) pageable).getToken());
+            Object[] criteriaValues = result;
+            
+            result = new Object[criteriaValues.length + seekValues.length];
+            System.arraycopy(criteriaValues, 0, result, 0, criteriaValues.length);
+            System.arraycopy(seekValues, 0, result, criteriaValues.length, seekValues.length);
+        }
+        
+        return result;
+    }
+
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.repository.query.AbstractOrientQuery#prepareCountParameters(java.lang.Object[])
+     */
+    @Override
+    protected Object[] prepareCountParameters(Object[] values) {
+        Object[] bindableValues = super.prepareParameters(values);
+        Object[] result = new Object[bindings.length];
+        
+        for (int i = 0; i < bindings.length; i++) {
+            result[i] = bindings[i].bind(bindableValues);
+        }
+        
+        return result;
+    }
+
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.repository.query.AbstractOrientQuery#getSort(org.springframework.data.domain.Pageable)
+     */
+    @Override
+    protected Sort getSort(Pageable pageable) {
+        Sort sort = super.getSort(pageable);
+        
+        return tree.getSort() == null ? sort : tree.getSort().and(sort);
+    }
+
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.repository.query.AbstractOrientQuery#getMaxResults()
+     */
+    @Override
+    protected Integer getMaxResults() {
+        if (method.isExistsQuery()) {
+            return 1;
+        }
+        
+        return tree.isLimiting() ? tree.getMaxResults() : null;
+    }
+
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.repository.query.AbstractOrientQuery#isModifyingQuery()
+     */
+    @Override
+    protected boolean isModifyingQuery() {
+        return tree.isDelete();
+    }
+
     /* (non-Javadoc)
      * @see org.springframework.data.orient.repository.object.query.AbstractOrientQuery#isCountQuery()
      */
@@ -73,4 +190,34 @@ public class PartTreeOrientQuery extends AbstractOrientQuery {
     protected boolean isCountQuery() {
         return tree.isCountProjection();
     }
+    
+    /**
+     * Gets the source to parse the {@link PartTree} from. The tree does not know exists methods, so they are parsed as
+     * find methods with the same criteria.
+     *
+     * @param method the query method
+     * @return the source
+     */
+    private static String toTreeSource(OrientQueryMethod method) {
+        String name = method.getName();
+        
+        return method.isExistsQuery() ? "find" + name.substring("exists".length()) : name;
+    }
+    
+    /**
+     * Creates the argument values to render a query with. Bindable parameters are always rendered as placeholders,
+     * so the actual values do not matter as long as they are not {@literal null}.
+     *
+     * @param parameters the parameters
+     * @return the placeholder values
+     */
+    private static Object[] placeholders(OrientParameters parameters) {
+        Object[] values = new Object[parameters.getNumberOfParameters()];
+        
+        for (OrientParameter parameter : parameters.getBindableParameters()) {
+            values[parameter.getIndex()] = PLACEHOLDER;
+        }
+        
+        return values;
+    }
 }
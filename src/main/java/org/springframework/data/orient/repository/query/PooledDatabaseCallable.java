@@ -0,0 +1,75 @@
+package org.springframework.data.orient.repository.query;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.orm.orient.AbstractOrientDatabaseFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.orientechnologies.orient.core.db.ODatabaseComplex;
+import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
+import com.orientechnologies.orient.core.db.record.ODatabaseRecord;
+
+/**
+ * Calls the given {@link Callable} with a connection acquired from the pool of the database factory bound to the
+ * current thread. The connection is also bound as the transactional resource of the factory, so transactions started
+ * by the callable use it. The connection is returned to the pool afterwards.
+ * <p>
+ * Executors may run the callable on the calling thread, e.g. with the caller-runs policy, which can already have a
+ * database bound. The previous resource and the previous database of the thread are restored once the callable
+ * returns.
+ *
+ * @author Dzmitry_Naskou
+ * @param <T> the type of the result
+ */
+final class PooledDatabaseCallable<T> implements Callable<T> {
+
+    /** The database factory. */
+    private final AbstractOrientDatabaseFactory<?> dbf;
+    
+    /** The callable to call. */
+    private final Callable<T> callable;
+    
+    /**
+     * Instantiates a new {@link PooledDatabaseCallable}.
+     *
+     * @param dbf the database factory
+     * @param callable the callable to call
+     */
+    public PooledDatabaseCallable(AbstractOrientDatabaseFactory<?> dbf, Callable<T> callable) {
+        super();
+        this.dbf = dbf;
+        this.callable = callable;
+    }
+    
+    /* (non-Javadoc)
+     * @see java.util.concurrent.Callable#call()
+     */
+    @Override
+    public T call() throws Exception {
+        ODatabaseRecord previous = ODatabaseRecordThreadLocal.INSTANCE.getIfDefined();
+        Object previousResource = TransactionSynchronizationManager.unbindResourceIfPossible(dbf);
+        
+        ODatabaseComplex<?> db = dbf.openDatabase();
+        TransactionSynchronizationManager.bindResource(dbf, db);
+        
+        try {
+            return callable.call();
+        } finally {
+            TransactionSynchronizationManager.unbindResourceIfPossible(dbf);
+            
+            if (previousResource != null) {
+                TransactionSynchronizationManager.bindResource(dbf, previousResource);
+            }
+            
+            if (!db.isClosed()) {
+                db.close();
+            }
+            
+            if (previous == null) {
+                ODatabaseRecordThreadLocal.INSTANCE.remove();
+            } else {
+                ODatabaseRecordThreadLocal.INSTANCE.set(previous);
+            }
+        }
+    }
+}
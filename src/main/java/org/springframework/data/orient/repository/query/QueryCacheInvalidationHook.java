@@ -0,0 +1,151 @@
+package org.springframework.data.orient.repository.query;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.orm.orient.OrientWriteListener;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
+import com.orientechnologies.orient.core.hook.ORecordHook;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.record.ORecord;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+
+/**
+ * The {@link ORecordHook} clearing the query caches of the class, its super classes and the cluster of every created,
+ * updated or deleted record. The hook is triggered before the changes are visible to other connections, so a
+ * concurrent query could cache the old records right after. Within a Spring managed transaction the caches are
+ * therefore cleared once more after the commit.
+ * <p>
+ * Writes bypassing the hooks, like the ones with the massive insert intent, reach the hook as an
+ * {@link OrientWriteListener} of the database factory.
+ *
+ * @author Dzmitry_Naskou
+ * @see QueryCacheManager
+ */
+public class QueryCacheInvalidationHook implements ORecordHook, OrientWriteListener {
+
+    /** The cache manager. */
+    private final QueryCacheManager cacheManager;
+    
+    /**
+     * Instantiates a new {@link QueryCacheInvalidationHook}.
+     *
+     * @param cacheManager the cache manager
+     */
+    public QueryCacheInvalidationHook(QueryCacheManager cacheManager) {
+        super();
+        this.cacheManager = cacheManager;
+    }
+    
+    /* (non-Javadoc)
+     * @see com.orientechnologies.orient.core.hook.ORecordHook#onTrigger(com.orientechnologies.orient.core.hook.ORecordHook.TYPE, com.orientechnologies.orient.core.record.ORecord)
+     */
+    @Override
+    public RESULT onTrigger(TYPE iType, ORecord<?> iRecord) {
+        switch (iType) {
+            case AFTER_CREATE:
+            case AFTER_UPDATE:
+            case AFTER_DELETE:
+                evict(iRecord);
+                break;
+            default:
+        }
+        
+        return RESULT.RECORD_NOT_CHANGED;
+    }
+    
+    /* (non-Javadoc)
+     * @see com.orientechnologies.orient.core.hook.ORecordHook#onUnregister()
+     */
+    @Override
+    public void onUnregister() {
+    }
+    
+    /* (non-Javadoc)
+     * @see org.springframework.orm.orient.OrientWriteListener#written(java.lang.Iterable)
+     */
+    @Override
+    public void written(Iterable<String> sources) {
+        for (String source : sources) {
+            evict(source);
+        }
+    }
+    
+    private void evict(ORecord<?> record) {
+        if (record instanceof ODocument) {
+            for (OClass type = ((ODocument) record).getSchemaClass(); type != null; type = type.getSuperClass()) {
+                evict(type.getName());
+            }
+        }
+        
+        int clusterId = record.getIdentity().getClusterId();
+        
+        if (clusterId >= 0) {
+            String clusterName = ODatabaseRecordThreadLocal.INSTANCE.get().getClusterNameById(clusterId);
+            
+            if (clusterName != null) {
+                evict(clusterName);
+            }
+        }
+    }
+    
+    /**
+     * Clears the caches of the given class or cluster now and, within a transaction, after it commits.
+     *
+     * @param source the name of the class or cluster
+     */
+    private void evict(String source) {
+        cacheManager.evict(source);
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            getCommitEviction().sources.add(source);
+        }
+    }
+    
+    /**
+     * Gets the eviction after the commit of the current transaction, registering it on first use.
+     *
+     * @return the commit eviction
+     */
+    private CommitEviction getCommitEviction() {
+        CommitEviction eviction = (CommitEviction) TransactionSynchronizationManager.getResource(this);
+        
+        if (eviction == null) {
+            eviction = new CommitEviction();
+            TransactionSynchronizationManager.bindResource(this, eviction);
+            TransactionSynchronizationManager.registerSynchronization(eviction);
+        }
+        
+        return eviction;
+    }
+    
+    /**
+     * Clears the caches of the sources written by a transaction once more after it commits.
+     */
+    private class CommitEviction extends TransactionSynchronizationAdapter {
+        
+        /** The names of the written classes and clusters. */
+        private final Set<String> sources = new HashSet<String>();
+        
+        /* (non-Javadoc)
+         * @see org.springframework.transaction.support.TransactionSynchronizationAdapter#afterCommit()
+         */
+        @Override
+        public void afterCommit() {
+            for (String source : sources) {
+                cacheManager.evict(source);
+            }
+        }
+        
+        /* (non-Javadoc)
+         * @see org.springframework.transaction.support.TransactionSynchronizationAdapter#afterCompletion(int)
+         */
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(QueryCacheInvalidationHook.this);
+        }
+    }
+}
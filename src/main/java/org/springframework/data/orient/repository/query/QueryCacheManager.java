@@ -0,0 +1,78 @@
+package org.springframework.data.orient.repository.query;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import org.springframework.orm.orient.AbstractOrientDatabaseFactory;
+
+/**
+ * Manages the {@link QueryResultCache}s of query methods and clears them when the records of the classes or clusters
+ * they query are written. The invalidation is driven by a {@link QueryCacheInvalidationHook} added to the database
+ * factories the caches are created for.
+ *
+ * @author Dzmitry_Naskou
+ */
+public class QueryCacheManager {
+
+    /** The caches by the names of the classes and clusters they query. */
+    private final Map<String, Set<QueryResultCache>> caches = new ConcurrentHashMap<String, Set<QueryResultCache>>();
+    
+    /** The database factories the invalidation hook is added to. */
+    private final Set<AbstractOrientDatabaseFactory<?>> factories = new CopyOnWriteArraySet<AbstractOrientDatabaseFactory<?>>();
+    
+    /** The invalidation hook. */
+    private final QueryCacheInvalidationHook hook = new QueryCacheInvalidationHook(this);
+    
+    /**
+     * Creates the cache of a query method reading the given classes or clusters.
+     *
+     * @param dbf the database factory the query runs on
+     * @param sources the names of the classes and clusters the query reads
+     * @param ttl the time to live of the results in milliseconds, non-positive if the results do not expire
+     * @param maxEntries the maximum number of results
+     * @return the cache
+     */
+    public QueryResultCache createCache(AbstractOrientDatabaseFactory<?> dbf, Iterable<String> sources, long ttl, int maxEntries) {
+        if (factories.add(dbf)) {
+            dbf.addHook(hook);
+            dbf.addWriteListener(hook);
+        }
+        
+        QueryResultCache cache = new QueryResultCache(ttl, maxEntries);
+        
+        for (String source : sources) {
+            getCaches(source).add(cache);
+        }
+        
+        return cache;
+    }
+    
+    /**
+     * Clears the caches of the queries reading the given class or cluster.
+     *
+     * @param source the name of the class or cluster
+     */
+    public void evict(String source) {
+        Set<QueryResultCache> sourceCaches = caches.get(source.toLowerCase());
+        
+        if (sourceCaches != null) {
+            for (QueryResultCache cache : sourceCaches) {
+                cache.clear();
+            }
+        }
+    }
+    
+    private synchronized Set<QueryResultCache> getCaches(String source) {
+        String key = source.toLowerCase();
+        Set<QueryResultCache> sourceCaches = caches.get(key);
+        
+        if (sourceCaches == null) {
+            sourceCaches = new CopyOnWriteArraySet<QueryResultCache>();
+            caches.put(key, sourceCaches);
+        }
+        
+        return sourceCaches;
+    }
+}
@@ -0,0 +1,125 @@
+package org.springframework.data.orient.repository.query;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Records the executions of repository methods to the configured {@link QueryMetrics} and logs the executions slower
+ * than the configured threshold with their statement and arguments.
+ *
+ * @author Dzmitry_Naskou
+ * @see OrientQuerySettings#getMetrics()
+ * @see OrientQuerySettings#getSlowQueryThreshold()
+ */
+public class QueryInstrumentation {
+
+    /** The logger slow queries are logged to. */
+    private static final Logger log = LoggerFactory.getLogger(QueryInstrumentation.class);
+    
+    /** The metrics, {@literal null} if the executions are not recorded. */
+    private final QueryMetrics metrics;
+    
+    /** The slow query threshold in nanoseconds, negative if slow queries are not logged. */
+    private final long slowQueryThresholdNanos;
+    
+    /**
+     * Instantiates a new {@link QueryInstrumentation}.
+     *
+     * @param settings the query settings
+     */
+    public QueryInstrumentation(OrientQuerySettings settings) {
+        super();
+        this.metrics = settings.getMetrics();
+        this.slowQueryThresholdNanos = settings.getSlowQueryThreshold() < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(settings.getSlowQueryThreshold());
+    }
+    
+    /**
+     * Gets the name the given repository method is recorded as, i.e. the simple name of the repository interface and the
+     * method name followed by the simple names of the parameter types, e.g. {@code PersonRepository.findByLastName(String)},
+     * so overloaded methods are recorded separately.
+     *
+     * @param repositoryInterface the repository interface
+     * @param method the method
+     * @return the name
+     */
+    public static String getName(Class<?> repositoryInterface, Method method) {
+        StringBuilder name = new StringBuilder(repositoryInterface.getSimpleName()).append('.').append(method.getName()).append('(');
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        
+        for (int i = 0; i < parameterTypes.length; i++) {
+            name.append(i == 0 ? "" : ",").append(parameterTypes[i].getSimpleName());
+        }
+        
+        return name.append(')').toString();
+    }
+    
+    /**
+     * Records an execution of the given repository method.
+     *
+     * @param method the name of the method
+     * @param elapsedNanos the elapsed time in nanoseconds
+     * @param result the result of the method, {@literal null} if it failed
+     * @param failure the exception the method failed with, {@literal null} if it succeeded
+     */
+    public void record(String method, long elapsedNanos, Object result, Throwable failure) {
+        if (metrics != null) {
+            metrics.record(method, elapsedNanos, failure == null ? countRows(result) : -1, failure);
+        }
+    }
+    
+    /**
+     * Checks whether an execution took longer than the slow query threshold.
+     *
+     * @param elapsedNanos the elapsed time in nanoseconds
+     * @return true, if the execution is slow
+     */
+    public boolean isSlow(long elapsedNanos) {
+        return slowQueryThresholdNanos >= 0 && elapsedNanos > slowQueryThresholdNanos;
+    }
+    
+    /**
+     * Logs a slow execution of the given repository method.
+     *
+     * @param method the name of the method
+     * @param elapsedNanos the elapsed time in nanoseconds
+     * @param statement the executed statement, {@literal null} if not known, e.g. for CRUD methods
+     * @param arguments the bound arguments
+     */
+    public void logSlowQuery(String method, long elapsedNanos, String statement, Object[] arguments) {
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        
+        if (statement == null) {
+            log.warn("Slow query {} took {} ms with arguments {}", method, elapsedMillis, Arrays.deepToString(arguments));
+        } else {
+            log.warn("Slow query {} took {} ms: {} with parameters {}", method, elapsedMillis, statement, Arrays.deepToString(arguments));
+        }
+    }
+    
+    /**
+     * Counts the rows of the given result of a repository method.
+     *
+     * @param result the result
+     * @return the number of rows or {@literal -1} if the result is not a set of rows, e.g. the number of deleted
+     *         records or a future
+     */
+    static int countRows(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        } else if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        } else if (result instanceof Object[]) {
+            return ((Object[]) result).length;
+        } else if (result instanceof Number || result instanceof Boolean || result instanceof Iterable || result instanceof Future) {
+            return -1;
+        }
+        
+        return result == null ? 0 : 1;
+    }
+}
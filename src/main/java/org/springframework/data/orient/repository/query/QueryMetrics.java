@@ -0,0 +1,22 @@
+package org.springframework.data.orient.repository.query;
+
+/**
+ * The SPI to record the executions of repository methods, e.g. to export them to a monitoring system. Implementations
+ * are called on the thread executing the method, so they must be thread-safe and fast.
+ *
+ * @author Dzmitry_Naskou
+ * @see HistogramQueryMetrics
+ */
+public interface QueryMetrics {
+
+    /**
+     * Records an execution of the given repository method.
+     *
+     * @param method the name of the method, i.e. the simple name of the repository interface, the method name and the
+     *            simple names of the parameter types, e.g. {@code PersonRepository.findByLastName(String)}
+     * @param elapsedNanos the elapsed time in nanoseconds
+     * @param rows the number of returned rows or {@literal -1} if unknown
+     * @param failure the exception the method failed with, {@literal null} if it succeeded
+     */
+    void record(String method, long elapsedNanos, int rows, Throwable failure);
+}
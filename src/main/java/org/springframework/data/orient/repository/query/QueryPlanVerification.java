@@ -0,0 +1,20 @@
+package org.springframework.data.orient.repository.query;
+
+/**
+ * The ways to verify the plans of the queries of repository methods when the repositories are created. Verification
+ * runs {@code EXPLAIN} for every selecting query method with placeholder arguments, so it is meant for embedded test
+ * databases, e.g. in CI builds.
+ *
+ * @author Dzmitry_Naskou
+ */
+public enum QueryPlanVerification {
+
+    /** Query plans are not verified. */
+    NONE,
+    
+    /** Query methods scanning whole classes or clusters instead of using an index are logged as warnings. */
+    WARN,
+    
+    /** Query methods scanning whole classes or clusters instead of using an index fail the repository creation. */
+    FAIL
+}
@@ -0,0 +1,140 @@
+package org.springframework.data.orient.repository.query;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.Callable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.orient.core.OrientOperations;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.OCommandSQL;
+import com.orientechnologies.orient.core.sql.query.OSQLQuery;
+
+/**
+ * Verifies the plans of the queries of repository methods by running {@code EXPLAIN} for them with placeholder
+ * arguments on a pooled connection. A query with criteria which involves no index scans the whole class or cluster,
+ * which is reported according to the configured {@link QueryPlanVerification}.
+ *
+ * @author Dzmitry_Naskou
+ */
+final class QueryPlanVerifier {
+
+    /** The logger. */
+    private static final Logger log = LoggerFactory.getLogger(QueryPlanVerifier.class);
+    
+    /** The variable of the explained plan listing the indexes used. */
+    private static final String INVOLVED_INDEXES = "involvedIndexes";
+    
+    /** The orient operations. */
+    private final OrientOperations operations;
+    
+    /** The verification. */
+    private final QueryPlanVerification verification;
+    
+    /**
+     * Instantiates a new {@link QueryPlanVerifier}.
+     *
+     * @param operations the orient operations
+     * @param verification the verification
+     */
+    public QueryPlanVerifier(OrientOperations operations, QueryPlanVerification verification) {
+        super();
+        this.operations = operations;
+        this.verification = verification;
+    }
+    
+    /**
+     * Verifies the plan of the given query. Modifying queries are not verified, since explaining a statement executes it.
+     *
+     * @param query the query
+     * @throws IllegalStateException if the query scans the whole source and the verification is
+     *         {@link QueryPlanVerification#FAIL}
+     */
+    public void verify(AbstractOrientQuery query) {
+        if (verification == QueryPlanVerification.NONE || query.isModifyingQuery()) {
+            return;
+        }
+        
+        OrientQueryMethod method = query.getQueryMethod();
+        Object[] values = placeholders(method.getParameters());
+        
+        @SuppressWarnings("rawtypes")
+        OSQLQuery osqlQuery = query.createQuery(values);
+        String text = osqlQuery.getText().trim();
+        
+        if (!QueryUtils.isSelect(text) || !QueryUtils.hasCriteria(text)) {
+            return;
+        }
+        
+        ODocument plan;
+        
+        try {
+            plan = explain(text, query.prepareParameters(values));
+        } catch (Exception e) {
+            log.warn(String.format("Could not explain query %s of method %s!", text, method), e);
+            return;
+        }
+        
+        Collection<?> indexes = plan.field(INVOLVED_INDEXES);
+        
+        if (indexes != null && !indexes.isEmpty()) {
+            log.debug("Query {} of method {} uses indexes {}", text, method, indexes);
+            return;
+        }
+        
+        String message = String.format("Query %s of method %s scans the whole source, no index is used!", text, method);
+        
+        if (verification == QueryPlanVerification.FAIL) {
+            throw new IllegalStateException(message);
+        }
+        
+        log.warn(message);
+    }
+    
+    private ODocument explain(final String text, final Object[] parameters) throws Exception {
+        return new PooledDatabaseCallable<ODocument>(operations.getDatabaseFactory(), new Callable<ODocument>() {
+            @Override
+            public ODocument call() {
+                return operations.command(new OCommandSQL("explain " + text)).execute(parameters);
+            }
+        }).call();
+    }
+    
+    /**
+     * Creates the placeholder arguments of the given parameters. Bindable parameters get a value of their type where
+     * possible, so the criteria can be evaluated, paging and sorting parameters are left out.
+     *
+     * @param parameters the parameters
+     * @return the placeholder values
+     */
+    private static Object[] placeholders(OrientParameters parameters) {
+        Object[] values = new Object[parameters.getNumberOfParameters()];
+        
+        for (OrientParameter parameter : parameters.getBindableParameters()) {
+            values[parameter.getIndex()] = placeholder(parameter.getType());
+        }
+        
+        return values;
+    }
+    
+    private static Object placeholder(Class<?> type) {
+        if (String.class.equals(type)) {
+            return "";
+        } else if (Boolean.class.equals(type) || boolean.class.equals(type)) {
+            return false;
+        } else if (Number.class.isAssignableFrom(type) || type.isPrimitive()) {
+            return 0;
+        } else if (Date.class.isAssignableFrom(type)) {
+            return new Date(0);
+        } else if (Collection.class.isAssignableFrom(type)) {
+            return Collections.emptyList();
+        } else if (type.isEnum() && type.getEnumConstants().length > 0) {
+            return type.getEnumConstants()[0];
+        }
+        
+        return null;
+    }
+}
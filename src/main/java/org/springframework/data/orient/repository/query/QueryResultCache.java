@@ -0,0 +1,157 @@
+package org.springframework.data.orient.repository.query;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded store of query results keyed by the query arguments. The least recently used results are evicted once
+ * the store is full, and results expire after the given time to live.
+ *
+ * @author Dzmitry_Naskou
+ */
+public class QueryResultCache {
+
+    /** The value returned by {@link #get(Object[])} if there is no result cached. */
+    public static final Object MISS = new Object();
+    
+    /** The results. */
+    private final Map<Key, Entry> entries;
+    
+    /** The time to live of the results in milliseconds, non-positive if the results do not expire. */
+    private final long ttl;
+    
+    /** The generation of the cache, incremented whenever the cache is cleared. */
+    private long generation;
+    
+    /**
+     * Instantiates a new {@link QueryResultCache}.
+     *
+     * @param ttl the time to live of the results in milliseconds, non-positive if the results do not expire
+     * @param maxEntries the maximum number of results
+     */
+    public QueryResultCache(long ttl, final int maxEntries) {
+        super();
+        this.ttl = ttl;
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+            
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+    
+    /**
+     * Gets the result cached for the given arguments.
+     *
+     * @param values the arguments
+     * @return the result or {@link #MISS} if there is no result cached
+     */
+    public synchronized Object get(Object[] values) {
+        Key key = new Key(values);
+        Entry entry = entries.get(key);
+        
+        if (entry == null) {
+            return MISS;
+        }
+        
+        if (entry.isExpired()) {
+            entries.remove(key);
+            return MISS;
+        }
+        
+        return entry.value;
+    }
+    
+    /**
+     * Gets the current generation of the cache to pass to {@link #put(Object[], Object, long)}.
+     *
+     * @return the generation
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+    
+    /**
+     * Caches the result for the given arguments unless the cache was cleared since the given generation, i.e. while
+     * the result was queried.
+     *
+     * @param values the arguments
+     * @param value the result
+     * @param generation the generation the result was queried in
+     */
+    public synchronized void put(Object[] values, Object value, long generation) {
+        if (generation == this.generation) {
+            entries.put(new Key(values), new Entry(value, ttl > 0 ? System.currentTimeMillis() + ttl : Long.MAX_VALUE));
+        }
+    }
+    
+    /**
+     * Removes all the cached results.
+     */
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+    
+    /**
+     * Gets the number of the cached results.
+     *
+     * @return the size
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    /**
+     * The cache key comparing the arguments deeply.
+     */
+    private static final class Key {
+        
+        /** The arguments. */
+        private final Object[] values;
+        
+        /** The hash code. */
+        private final int hashCode;
+        
+        public Key(Object[] values) {
+            super();
+            this.values = values.clone();
+            this.hashCode = Arrays.deepHashCode(this.values);
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Key && Arrays.deepEquals(values, ((Key) obj).values);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+    
+    /**
+     * The cached result.
+     */
+    private static final class Entry {
+        
+        /** The result. */
+        private final Object value;
+        
+        /** The time the result expires at. */
+        private final long expiresAt;
+        
+        public Entry(Object value, long expiresAt) {
+            super();
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+        
+        public boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
@@ -1,32 +1,70 @@
 package org.springframework.data.orient.repository.query;
 
-import static org.jooq.impl.DSL.field;
-
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.List;
 
-import org.jooq.SortField;
-import org.jooq.SortOrder;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.domain.Sort.Order;
+import org.springframework.data.orient.repository.ContinuationToken;
 import org.springframework.data.orient.repository.OrientSource;
 import org.springframework.util.Assert;
 
+import com.orientechnologies.orient.core.command.OCommandResultListener;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.sql.query.OSQLAsynchQuery;
+import com.orientechnologies.orient.core.sql.query.OSQLQuery;
+
 /**
  * Utility class to create Orient queries.
  * 
  * @author Dzmitry_Naskou
  */
 public final class QueryUtils {
-
+    
+    /** The record id attribute. */
+    public static final String RID = "@rid";
+    
+    /** The name of the record id in projected records. */
+    public static final String PROJECTED_RID = "rid";
+    
+    /** The order by clause. */
+    private static final String[] ORDER_BY = {"order by"};
+    
+    /** The where clause. */
+    private static final String[] WHERE = {"where"};
+    
+    /** The from clause. */
+    private static final String[] FROM = {"from"};
+    
+    /** The distinct function. */
+    private static final String[] DISTINCT = {"distinct"};
+    
+    /** The group by clause. */
+    private static final String[] GROUP_BY = {"group by"};
+    
+    /** The clauses dropped from count queries. */
+    private static final String[] COUNT_DROPPED_CLAUSES = {"order by", "skip", "limit", "fetchplan", "timeout", "lock", "parallel"};
+    
+    /** The skip clause. */
+    private static final String[] SKIP = {"skip"};
+    
+    /** The clauses following the skip clause. */
+    private static final String[] SKIP_SUCCESSORS = {"limit", "fetchplan", "timeout", "lock", "parallel"};
+    
+    /** The clauses following the order by clause. */
+    private static final String[] TRAILING_CLAUSES = {"skip", "limit", "fetchplan", "timeout", "lock", "parallel"};
+    
     private QueryUtils() {
         super();
     }
     
     /**
-     * Apply sorting for the given query.
+     * Apply sorting for the given query. The orders are appended to the order by clause of the query if it declares
+     * one, otherwise the order by clause is inserted before the trailing clauses ({@code skip}, {@code limit},
+     * {@code fetchplan} etc.), so the records are sorted by the database.
      *
      * @param query the query
      * @param sort the sort
@@ -39,33 +77,251 @@ public final class QueryUtils {
             return query;
         }
         
-        throw new UnsupportedOperationException("Not implemented");
+        StringBuilder orders = new StringBuilder();
+        
+        for (Order order : sort) {
+            orders.append(orders.length() == 0 ? "" : ", ").append(OrientSqlBuilder.sortProperty(order.getProperty())).append(order.isAscending() ? " asc" : " desc");
+        }
+        
+        int orderBy = indexOfClause(query, 0, ORDER_BY);
+        
+        if (orderBy < 0) {
+            return insert(query, indexOfClause(query, 0, TRAILING_CLAUSES), " order by " + orders);
+        }
+        
+        return insert(query, indexOfClause(query, orderBy + 1, TRAILING_CLAUSES), ", " + orders);
     }
     
     /**
-     * Converts the given {@link Sort} into {@link SortField}s.
+     * Apply the skip clause for the given query, inserting it before the {@code limit}, {@code fetchplan} etc.
+     * clauses. The query must not declare its own skip clause.
      *
-     * @param sort the {@link Sort} instance to be transformed into JOOQ {@link SortField}s.
-     * @return the list of {@link SortField}s.
+     * @param query the query
+     * @param skip the number of records to skip
+     * @return the string
      */
-    public static List<SortField<?>> toOrders(Sort sort) {
-        if (sort == null) {
-            return Collections.emptyList();
+    public static String applySkip(String query, int skip) {
+        Assert.hasText(query);
+        
+        if (skip <= 0) {
+            return query;
         }
         
-        List<SortField<?>> orders = new ArrayList<SortField<?>>();
+        Assert.isTrue(indexOfClause(query, 0, SKIP) < 0, String.format("Query %s must not declare skip when paged!", query));
         
-        for (Order order : sort) {
-            orders.add(field(order.getProperty()).sort(order.getDirection() == Direction.ASC ? SortOrder.ASC : SortOrder.DESC)); 
+        return insert(query, indexOfClause(query, 0, SKIP_SUCCESSORS), " skip " + skip);
+    }
+    
+    /**
+     * Derives the count query from the given select query. The projection is replaced by {@code count(*)} and the
+     * order by, skip, limit and following clauses are dropped. Queries selecting distinct values or grouping records
+     * are counted through a sub-query instead.
+     *
+     * @param query the query
+     * @return the count query or {@literal null} if the query is not a select
+     */
+    public static String toCountQuery(String query) {
+        Assert.hasText(query);
+        
+        String trimmed = query.trim();
+        int from = indexOfClause(trimmed, 0, FROM);
+        
+        if (!isSelect(trimmed) || from < 0) {
+            return null;
         }
-
-        return orders;
+        
+        int end = indexOfClause(trimmed, from, COUNT_DROPPED_CLAUSES);
+        String source = end < 0 ? trimmed : trimmed.substring(0, end).trim();
+        String projection = trimmed.substring("select".length(), from);
+        
+        if (indexOfClause(projection, 0, DISTINCT) >= 0 || indexOfClause(source, from, GROUP_BY) >= 0) {
+            return OrientSqlBuilder.reuse().selectCount().from("(" + source + ")").build();
+        }
+        
+        return OrientSqlBuilder.reuse().selectCount().append(" ").append(source.substring(from)).build();
+    }
+    
+    /**
+     * Checks whether the given query is a select.
+     *
+     * @param query the query
+     * @return true, if the query is a select
+     */
+    public static boolean isSelect(String query) {
+        return matchesClause(query.trim(), 0, "select");
+    }
+    
+    /**
+     * Checks whether the given query has a where clause at its top level.
+     *
+     * @param query the query
+     * @return true, if the query has criteria
+     */
+    public static boolean hasCriteria(String query) {
+        return indexOfClause(query, 0, WHERE) >= 0;
+    }
+    
+    /**
+     * Converts the given {@link Sort} into the unique sort of keyset pagination, i.e. the sort ending with the
+     * record id. Defaults to the ascending order of record ids.
+     *
+     * @param sort the sort, can be {@literal null}
+     * @return the keyset sort
+     */
+    public static Sort toKeysetSort(Sort sort) {
+        List<Order> orders = new ArrayList<Order>();
+        Direction ridDirection = Direction.ASC;
+        
+        if (sort != null) {
+            for (Order order : sort) {
+                if (RID.equals(order.getProperty())) {
+                    ridDirection = order.getDirection();
+                } else {
+                    orders.add(order);
+                }
+            }
+        }
+        
+        orders.add(new Order(ridDirection, RID));
+        
+        return new Sort(orders);
+    }
+    
+    /**
+     * Converts the given keyset sort into the sort of projected records. The projected records are sorted after the
+     * projection, so the record id is replaced by its projected name.
+     *
+     * @param keysetSort the keyset sort
+     * @return the projected sort
+     * @see #toKeysetSort(Sort)
+     */
+    public static Sort toProjectedSort(Sort keysetSort) {
+        List<Order> orders = new ArrayList<Order>();
+        
+        for (Order order : keysetSort) {
+            orders.add(RID.equals(order.getProperty()) ? new Order(order.getDirection(), PROJECTED_RID) : order);
+        }
+        
+        return new Sort(orders);
+    }
+    
+    /**
+     * Creates the seek condition to continue the given keyset sort after the given token. The row value comparison
+     * {@code (k1, k2, @rid) > (?, ?, ?)} is not supported by OrientDB, so it is expanded to
+     * {@code (k1 > ?) or (k1 = ? and k2 > ?) or (k1 = ? and k2 = ? and @rid > ?)}, with {@code <} for descending keys.
+     * A disjunction on the top level cannot be answered by an index, so the expansion is preceded by the redundant range
+     * predicate {@code k1 >= ?} on the first key, i.e. {@code k1 >= ? and ((k1 > ?) or ...)}.
+     *
+     * @param keysetSort the keyset sort
+     * @param token the continuation token
+     * @return the condition
+     * @see #toKeysetSort(Sort)
+     * @see #toSeekValues(ContinuationToken)
+     */
+    public static String toSeekCondition(Sort keysetSort, ContinuationToken token) {
+        List<Order> orders = new ArrayList<Order>();
+        
+        for (Order order : keysetSort) {
+            OrientSqlBuilder.sortProperty(order.getProperty());
+            orders.add(order);
+        }
+        
+        Assert.isTrue(token.getValues().length == orders.size() - 1, String.format("Continuation token %s does not match the sort %s!", token, keysetSort));
+        
+        StringBuilder condition = new StringBuilder();
+        boolean ranged = orders.size() > 1;
+        
+        if (ranged) {
+            Order first = orders.get(0);
+            condition.append(first.getProperty()).append(first.isAscending() ? " >= " : " <= ").append(OrientSqlBuilder.parameter()).append(" and (");
+        }
+        
+        for (int i = 0; i < orders.size(); i++) {
+            condition.append(i == 0 ? "(" : " or (");
+            
+            for (int j = 0; j < i; j++) {
+                condition.append(orders.get(j).getProperty()).append(" = ").append(OrientSqlBuilder.parameter()).append(" and ");
+            }
+            
+            Order order = orders.get(i);
+            condition.append(order.getProperty()).append(order.isAscending() ? " > " : " < ").append(OrientSqlBuilder.parameter()).append(")");
+        }
+        
+        if (ranged) {
+            condition.append(")");
+        }
+        
+        return condition.toString();
+    }
+    
+    /**
+     * Creates the values to bind to the condition created by {@link #toSeekCondition(Sort, ContinuationToken)}.
+     *
+     * @param token the continuation token
+     * @return the values
+     */
+    public static Object[] toSeekValues(ContinuationToken token) {
+        Object[] tokenValues = token.getValues();
+        Object[] keys = new Object[tokenValues.length + 1];
+        
+        System.arraycopy(tokenValues, 0, keys, 0, tokenValues.length);
+        keys[tokenValues.length] = new ORecordId(token.getRid());
+        
+        boolean ranged = keys.length > 1;
+        Object[] values = new Object[keys.length * (keys.length + 1) / 2 + (ranged ? 1 : 0)];
+        int index = 0;
+        
+        if (ranged) {
+            values[index++] = keys[0];
+        }
+        
+        for (int i = 0; i < keys.length; i++) {
+            for (int j = 0; j <= i; j++) {
+                values[index++] = keys[j];
+            }
+        }
+        
+        return values;
+    }
+    
+    /**
+     * Creates the asynchronous version of the given query passing the results to the given listener.
+     *
+     * @param query the query
+     * @param listener the result listener
+     * @return the asynchronous query
+     */
+    public static OSQLAsynchQuery<Object> toAsynchQuery(OSQLQuery<?> query, OCommandResultListener listener) {
+        OSQLAsynchQuery<Object> asynchQuery = new OSQLAsynchQuery<Object>(query.getText(), query.getLimit(), listener);
+        asynchQuery.setFetchPlan(query.getFetchPlan());
+        
+        return asynchQuery;
     }
     
     public static String clusterToSource(String clusterName) {
         return new StringBuilder("cluster:").append(clusterName).toString();
     }
     
+    /**
+     * Creates the source reading the records with the given ids, e.g. {@code [#12:1, #12:7]}.
+     *
+     * @param rids the record ids
+     * @return the source
+     */
+    public static String ridsToSource(Collection<? extends ORID> rids) {
+        StringBuilder source = new StringBuilder("[");
+        
+        for (ORID rid : rids) {
+            if (source.length() > 1) {
+                source.append(", ");
+            }
+            
+            source.append(rid.toString());
+        }
+        
+        return source.append(']').toString();
+    }
+    
     public static String toSource(Class<?> domainClass) {
         return domainClass.getSimpleName();
     }
@@ -80,4 +336,82 @@ public final class QueryUtils {
         
         return null;
     }
+    
+    /**
+     * Finds the first of the given clauses at the top level of the query, i.e. outside of quoted literals and
+     * sub-queries, starting at the given index.
+     *
+     * @param query the query
+     * @param from the index to start from
+     * @param clauses the lower-case clause keywords
+     * @return the index of the clause or {@literal -1}
+     */
+    private static int indexOfClause(String query, int from, String... clauses) {
+        int depth = 0;
+        char quote = 0;
+        
+        for (int i = from; i < query.length(); i++) {
+            char c = query.charAt(i);
+            
+            if (quote != 0) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '(' || c == '[') {
+                depth++;
+            } else if (c == ')' || c == ']') {
+                depth--;
+            } else if (depth == 0 && (i == 0 || !isIdentifierPart(query.charAt(i - 1)))) {
+                for (String clause : clauses) {
+                    if (matchesClause(query, i, clause)) {
+                        return i;
+                    }
+                }
+            }
+        }
+        
+        return -1;
+    }
+    
+    private static boolean matchesClause(String query, int index, String clause) {
+        int position = index;
+        
+        for (String keyword : clause.split(" ")) {
+            if (position > index) {
+                int start = position;
+                
+                while (position < query.length() && Character.isWhitespace(query.charAt(position))) {
+                    position++;
+                }
+                
+                if (position == start) {
+                    return false;
+                }
+            }
+            
+            if (!query.regionMatches(true, position, keyword, 0, keyword.length())) {
+                return false;
+            }
+            
+            position += keyword.length();
+        }
+        
+        return position == query.length() || !isIdentifierPart(query.charAt(position));
+    }
+    
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '@' || c == '.';
+    }
+    
+    private static String insert(String query, int index, String fragment) {
+        if (index < 0) {
+            return query.trim() + fragment;
+        }
+        
+        return query.substring(0, index).trim() + fragment + " " + query.substring(index);
+    }
 }
@@ -1,5 +1,7 @@
 package org.springframework.data.orient.repository.query;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.orient.core.OrientOperations;
 
 import com.orientechnologies.orient.core.record.impl.ODocument;
@@ -12,10 +14,25 @@ public class StringBasedOrientQuery extends AbstractOrientQuery {
     
     private final boolean isCountQuery;
     
+    private final String countQueryString;
+    
     public StringBasedOrientQuery(String query, OrientQueryMethod method, OrientOperations operations) {
-        super(method, operations);
+        this(query, method, operations, new OrientQuerySettings());
+    }
+    
+    public StringBasedOrientQuery(String query, OrientQueryMethod method, OrientOperations operations, OrientQuerySettings settings) {
+        super(method, operations, settings);
         this.queryString = query;
         this.isCountQuery = method.hasAnnotatedQuery() ? method.getQueryAnnotation().count() : false;
+        this.countQueryString = method.getAnnotatedCountQuery() != null ? method.getAnnotatedCountQuery() : QueryUtils.toCountQuery(query);
+        
+        if (method.isModifyingQuery() && (method.isCollectionQuery() || method.isPageQuery() || method.isSliceQuery())) {
+            throw new IllegalStateException(String.format("Modifying method %s must return the number of affected records or void!", method));
+        }
+        
+        if (countQueryString == null && (method.isPageQuery() || method.isAsyncQuery() && Page.class.isAssignableFrom(method.getAsyncResultType()))) {
+            throw new IllegalStateException(String.format("Could not derive the count query from %s, declare it with @Query(countQuery = ...) on %s!", query, method));
+        }
     }
 
     @Override
@@ -23,6 +40,11 @@ public class StringBasedOrientQuery extends AbstractOrientQuery {
     protected OSQLQuery doCreateQuery(Object[] values) {
         OrientParameterAccessor accessor = new OrientParametersParameterAccessor(getQueryMethod().getParameters(), values);
         String sortedQuery = QueryUtils.applySorting(queryString, accessor.getSort());
+        Pageable pageable = accessor.getPageable();
+        
+        if (pageable != null) {
+            sortedQuery = QueryUtils.applySkip(sortedQuery, pageable.getOffset());
+        }
         
         return new OSQLSynchQuery(sortedQuery);
     }
@@ -30,7 +52,12 @@ public class StringBasedOrientQuery extends AbstractOrientQuery {
     @Override
     @SuppressWarnings("rawtypes")
     protected OSQLQuery doCreateCountQuery(Object[] values) {
-        return new OSQLSynchQuery<ODocument>(queryString);
+        return new OSQLSynchQuery<ODocument>(countQueryString);
+    }
+
+    @Override
+    protected boolean isModifyingQuery() {
+        return getQueryMethod().isModifyingQuery();
     }
 
     @Override
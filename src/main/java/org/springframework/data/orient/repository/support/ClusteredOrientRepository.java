@@ -8,6 +8,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.orient.core.OrientOperations;
 import org.springframework.data.orient.repository.query.QueryUtils;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -47,6 +48,15 @@ public class ClusteredOrientRepository<T> extends SimpleOrientRepository<T> {
         return save(entities, cluster);
     }
 
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.repository.support.SimpleOrientRepository#saveBatch(java.lang.Iterable)
+     */
+    @Override
+    @Transactional(readOnly = false, propagation = Propagation.SUPPORTS)
+    public void saveBatch(Iterable<? extends T> entities) {
+        saveBatch(entities, cluster);
+    }
+
     /* (non-Javadoc)
      * @see org.springframework.data.orient.repository.support.SimpleOrientRepository#findAll()
      */
@@ -71,6 +81,15 @@ public class ClusteredOrientRepository<T> extends SimpleOrientRepository<T> {
         deleteAll(cluster);
     }
 
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.repository.support.SimpleOrientRepository#truncate()
+     */
+    @Override
+    @Transactional(propagation = Propagation.NEVER)
+    public void truncate() {
+        truncate(cluster);
+    }
+
     /* (non-Javadoc)
      * @see org.springframework.data.orient.repository.support.SimpleOrientRepository#findAll(org.springframework.data.domain.Sort)
      */
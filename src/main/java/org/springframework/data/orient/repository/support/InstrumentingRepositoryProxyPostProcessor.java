@@ -0,0 +1,71 @@
+package org.springframework.data.orient.repository.support;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.data.orient.repository.query.QueryInstrumentation;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.support.RepositoryProxyPostProcessor;
+
+/**
+ * {@link RepositoryProxyPostProcessor} instrumenting the CRUD methods implemented by the repository base class, e.g.
+ * {@link SimpleOrientRepository}, the same way query methods are instrumented. The statements the CRUD methods run
+ * are built by the base class, so slow CRUD methods are logged with their name and arguments only.
+ *
+ * @author Dzmitry_Naskou
+ * @see QueryInstrumentation
+ */
+class InstrumentingRepositoryProxyPostProcessor implements RepositoryProxyPostProcessor {
+
+    /** The instrumentation. */
+    private final QueryInstrumentation instrumentation;
+    
+    /**
+     * Instantiates a new {@link InstrumentingRepositoryProxyPostProcessor}.
+     *
+     * @param instrumentation the instrumentation
+     */
+    public InstrumentingRepositoryProxyPostProcessor(QueryInstrumentation instrumentation) {
+        super();
+        this.instrumentation = instrumentation;
+    }
+    
+    /* (non-Javadoc)
+     * @see org.springframework.data.repository.core.support.RepositoryProxyPostProcessor#postProcess(org.springframework.aop.framework.ProxyFactory, org.springframework.data.repository.core.RepositoryInformation)
+     */
+    @Override
+    public void postProcess(ProxyFactory factory, final RepositoryInformation repositoryInformation) {
+        factory.addAdvice(new MethodInterceptor() {
+            
+            @Override
+            public Object invoke(MethodInvocation invocation) throws Throwable {
+                // Query methods are instrumented by their executions
+                if (!repositoryInformation.isBaseClassMethod(invocation.getMethod())) {
+                    return invocation.proceed();
+                }
+                
+                String name = QueryInstrumentation.getName(repositoryInformation.getRepositoryInterface(), invocation.getMethod());
+                long start = System.nanoTime();
+                Object result = null;
+                Throwable failure = null;
+                
+                try {
+                    result = invocation.proceed();
+                    
+                    return result;
+                } catch (Throwable e) {
+                    failure = e;
+                    throw e;
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    
+                    instrumentation.record(name, elapsed, result, failure);
+                    
+                    if (instrumentation.isSlow(elapsed)) {
+                        instrumentation.logSlowQuery(name, elapsed, null, invocation.getArguments());
+                    }
+                }
+            }
+        });
+    }
+}
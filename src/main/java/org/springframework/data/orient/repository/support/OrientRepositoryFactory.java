@@ -5,12 +5,16 @@ import java.io.Serializable;
 import org.springframework.data.orient.core.OrientOperations;
 import org.springframework.data.orient.object.repository.OrientObjectRepository;
 import org.springframework.data.orient.object.repository.support.SimpleOrientObjectRepository;
+import org.springframework.data.orient.repository.OrientReactiveRepository;
 import org.springframework.data.orient.repository.query.OrientQueryLookupStrategy;
+import org.springframework.data.orient.repository.query.OrientQuerySettings;
+import org.springframework.data.orient.repository.query.QueryInstrumentation;
 import org.springframework.data.repository.core.EntityInformation;
 import org.springframework.data.repository.core.RepositoryMetadata;
 import org.springframework.data.repository.core.support.RepositoryFactorySupport;
 import org.springframework.data.repository.query.QueryLookupStrategy;
 import org.springframework.data.repository.query.QueryLookupStrategy.Key;
+import org.springframework.util.ClassUtils;
 
 /**
  * Orient specific generic repository factory.
@@ -19,17 +23,38 @@ import org.springframework.data.repository.query.QueryLookupStrategy.Key;
  */
 public class OrientRepositoryFactory extends RepositoryFactorySupport {
 
+    /** Whether the Reactive Streams API is available. */
+    private static final boolean REACTIVE_STREAMS_PRESENT = ClassUtils.isPresent("org.reactivestreams.Publisher", OrientRepositoryFactory.class.getClassLoader());
+
     /** The orient template. */
     private final OrientOperations operations;
     
+    /** The query settings. */
+    private final OrientQuerySettings settings;
+    
     /**
      * Instantiates a new {@link OrientRepositoryFactory}.
      *
      * @param operations the orient object template
      */
     public OrientRepositoryFactory(OrientOperations operations) {
+        this(operations, new OrientQuerySettings());
+    }
+    
+    /**
+     * Instantiates a new {@link OrientRepositoryFactory}.
+     *
+     * @param operations the orient object template
+     * @param settings the query settings
+     */
+    public OrientRepositoryFactory(OrientOperations operations, OrientQuerySettings settings) {
         super();
         this.operations = operations;
+        this.settings = settings;
+        
+        if (settings.isInstrumented()) {
+            addRepositoryProxyPostProcessor(new InstrumentingRepositoryProxyPostProcessor(new QueryInstrumentation(settings)));
+        }
     }
 
     /* (non-Javadoc)
@@ -51,11 +76,19 @@ public class OrientRepositoryFactory extends RepositoryFactorySupport {
         Class<?> repositoryInterface = metadata.getRepositoryInterface();
         Class<?> javaType = entityInformation.getJavaType();
         
-        if (isObjectRepository(metadata.getRepositoryInterface())) {
-            return new SimpleOrientObjectRepository(operations, javaType, repositoryInterface);
-        } else {
-            return new SimpleOrientRepository(operations, javaType, repositoryInterface);
+        if (isReactiveRepository(repositoryInterface)) {
+            return new SimpleOrientReactiveRepository(operations, javaType, repositoryInterface, settings.getExecutor(), settings.getStreamIdleTimeout());
         }
+        
+        SimpleOrientRepository<?> repository = isObjectRepository(repositoryInterface)
+                ? new SimpleOrientObjectRepository(operations, javaType, repositoryInterface)
+                : new SimpleOrientRepository(operations, javaType, repositoryInterface);
+        
+        repository.setBatchSize(settings.getBatchSize());
+        repository.setWriteBehindBuffer(settings.getWriteBehindBuffer());
+        repository.setTransactionManager(settings.getTransactionManager());
+        
+        return repository;
     }
 
     /* (non-Javadoc)
@@ -63,7 +96,9 @@ public class OrientRepositoryFactory extends RepositoryFactorySupport {
      */
     @Override
     protected Class<?> getRepositoryBaseClass(RepositoryMetadata metadata) {
-        if (isObjectRepository(metadata.getRepositoryInterface())) {
+        if (isReactiveRepository(metadata.getRepositoryInterface())) {
+            return SimpleOrientReactiveRepository.class;
+        } else if (isObjectRepository(metadata.getRepositoryInterface())) {
             return SimpleOrientObjectRepository.class;
         } else {
             return SimpleOrientRepository.class;
@@ -75,7 +110,7 @@ public class OrientRepositoryFactory extends RepositoryFactorySupport {
      */
     @Override
     protected QueryLookupStrategy getQueryLookupStrategy(Key key) {
-        return OrientQueryLookupStrategy.create(operations, key);
+        return OrientQueryLookupStrategy.create(operations, key, settings);
     }
 
     /**
@@ -87,4 +122,14 @@ public class OrientRepositoryFactory extends RepositoryFactorySupport {
     private boolean isObjectRepository(Class<?>  repositoryInterface) {
         return OrientObjectRepository.class.isAssignableFrom(repositoryInterface);
     }
+    
+    /**
+     * Returns whether the given repository interface requires a {@link OrientReactiveRepository} specific implementation to be chosen.
+     *
+     * @param repositoryInterface the repository interface
+     * @return true, if is repository assignable from OrientReactiveRepository
+     */
+    private boolean isReactiveRepository(Class<?> repositoryInterface) {
+        return REACTIVE_STREAMS_PRESENT && OrientReactiveRepository.class.isAssignableFrom(repositoryInterface);
+    }
 }
@@ -1,12 +1,20 @@
 package org.springframework.data.orient.repository.support;
 
 import java.io.Serializable;
+import java.util.concurrent.Executor;
 
+import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.orient.core.OrientOperations;
+import org.springframework.data.orient.core.OrientWriteBehindBuffer;
+import org.springframework.data.orient.repository.query.OrientQuerySettings;
+import org.springframework.data.orient.repository.query.QueryMetrics;
+import org.springframework.data.orient.repository.query.QueryPlanVerification;
 import org.springframework.data.repository.Repository;
 import org.springframework.data.repository.core.support.RepositoryFactorySupport;
 import org.springframework.data.repository.core.support.TransactionalRepositoryFactoryBeanSupport;
+import org.springframework.data.repository.util.TxUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 /**
  * Special adapter for Springs {@link org.springframework.beans.factory.FactoryBean} interface to allow easy setup of
@@ -23,12 +31,153 @@ public class OrientRepositoryFactoryBean<T extends Repository<S, ID>, S, ID exte
     /** The orient operations. */
     @Autowired
     private OrientOperations operations;
+    
+    /** The executor to run queries on pooled connections. */
+    private Executor executor;
+    
+    /** Whether paged queries run their count query concurrently by default. */
+    private boolean concurrentCount;
+    
+    /** The verification of the query plans when the queries are created. */
+    private QueryPlanVerification queryPlanVerification = QueryPlanVerification.NONE;
+    
+    /** The metrics the executions of the repository methods are recorded to. */
+    private QueryMetrics metrics;
+    
+    /** The execution time in milliseconds above which repository methods are logged. */
+    private long slowQueryThreshold = -1;
+    
+    /** The maximum number of records read or written by a single statement of the batch operations. */
+    private int batchSize = OrientQuerySettings.DEFAULT_BATCH_SIZE;
+    
+    /** The buffer the updates of the entities are written behind with. */
+    private OrientWriteBehindBuffer writeBehindBuffer;
+    
+    /** The name of the transaction manager bean. */
+    private String transactionManagerName = TxUtils.DEFAULT_TRANSACTION_MANAGER;
+    
+    /** The bean factory to look the transaction manager up in. */
+    private BeanFactory beanFactory;
+
+    /**
+     * Sets the executor to run queries on pooled connections.
+     *
+     * @param executor the new executor
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Sets whether paged queries run their count query concurrently by default.
+     *
+     * @param concurrentCount whether the count query runs concurrently
+     */
+    public void setConcurrentCount(boolean concurrentCount) {
+        this.concurrentCount = concurrentCount;
+    }
+
+    /**
+     * Sets the verification of the query plans when the queries are created.
+     *
+     * @param queryPlanVerification the query plan verification
+     */
+    public void setQueryPlanVerification(QueryPlanVerification queryPlanVerification) {
+        this.queryPlanVerification = queryPlanVerification;
+    }
+
+    /**
+     * Sets the metrics the executions of the repository methods are recorded to.
+     *
+     * @param metrics the metrics
+     */
+    public void setMetrics(QueryMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Sets the execution time in milliseconds above which repository methods are logged with their query and arguments.
+     *
+     * @param slowQueryThreshold the slow query threshold, negative to not log slow queries
+     */
+    public void setSlowQueryThreshold(long slowQueryThreshold) {
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+
+    /**
+     * Sets the maximum number of records read or written by a single statement of the batch operations.
+     *
+     * @param batchSize the batch size
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sets the buffer the updates of the entities are written behind with.
+     *
+     * @param writeBehindBuffer the write-behind buffer
+     */
+    public void setWriteBehindBuffer(OrientWriteBehindBuffer writeBehindBuffer) {
+        this.writeBehindBuffer = writeBehindBuffer;
+    }
+
+    /* (non-Javadoc)
+     * @see org.springframework.data.repository.core.support.TransactionalRepositoryFactoryBeanSupport#setTransactionManager(java.lang.String)
+     */
+    @Override
+    public void setTransactionManager(String transactionManager) {
+        super.setTransactionManager(transactionManager);
+        this.transactionManagerName = transactionManager == null ? TxUtils.DEFAULT_TRANSACTION_MANAGER : transactionManager;
+    }
+
+    /* (non-Javadoc)
+     * @see org.springframework.data.repository.core.support.TransactionalRepositoryFactoryBeanSupport#setBeanFactory(org.springframework.beans.factory.BeanFactory)
+     */
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        super.setBeanFactory(beanFactory);
+        this.beanFactory = beanFactory;
+    }
 
     /* (non-Javadoc)
      * @see org.springframework.data.repository.core.support.TransactionalRepositoryFactoryBeanSupport#doCreateRepositoryFactory()
      */
     @Override
     protected RepositoryFactorySupport doCreateRepositoryFactory() {
-        return new OrientRepositoryFactory(operations);
+        return new OrientRepositoryFactory(operations, createQuerySettings());
+    }
+    
+    /**
+     * Creates the settings shared by the queries of the repository.
+     *
+     * @return the query settings
+     */
+    protected OrientQuerySettings createQuerySettings() {
+        OrientQuerySettings settings = new OrientQuerySettings();
+        settings.setExecutor(executor);
+        settings.setConcurrentCount(concurrentCount);
+        settings.setQueryPlanVerification(queryPlanVerification);
+        settings.setMetrics(metrics);
+        settings.setSlowQueryThreshold(slowQueryThreshold);
+        settings.setBatchSize(batchSize);
+        settings.setWriteBehindBuffer(writeBehindBuffer);
+        settings.setTransactionManager(getTransactionManager());
+        
+        return settings;
+    }
+    
+    /**
+     * Gets the transaction manager the repositories run their own transactions with, i.e. the one their methods are
+     * transactional with.
+     *
+     * @return the transaction manager or {@literal null} if there is no such bean
+     */
+    private PlatformTransactionManager getTransactionManager() {
+        if (beanFactory == null || !beanFactory.containsBean(transactionManagerName)) {
+            return null;
+        }
+        
+        return beanFactory.getBean(transactionManagerName, PlatformTransactionManager.class);
     }
 }
@@ -0,0 +1,134 @@
+package org.springframework.data.orient.repository.support;
+
+import java.util.concurrent.Executor;
+
+import org.reactivestreams.Publisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.orient.core.OrientOperations;
+import org.springframework.data.orient.object.repository.DetachMode;
+import org.springframework.data.orient.repository.OrientReactiveRepository;
+import org.springframework.data.orient.repository.OrientSource;
+import org.springframework.data.orient.repository.query.OrientQueryPublisher;
+import org.springframework.data.orient.repository.query.OrientSqlBuilder;
+import org.springframework.data.orient.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+
+/**
+ * Default implementation of the {@link OrientReactiveRepository} interface.
+ *
+ * @author Dzmitry_Naskou
+ * @param <T> the type of the entity to handle
+ */
+@Repository
+public class SimpleOrientReactiveRepository<T> implements OrientReactiveRepository<T> {
+
+    /** The no values to bind. */
+    private static final Object[] NO_VALUES = new Object[0];
+    
+    /** The orient operations. */
+    protected final OrientOperations operations;
+    
+    /** The domain class. */
+    protected final Class<T> domainClass;
+    
+    /** The repository interface. */
+    protected final Class<?> repositoryInterface;
+    
+    /** The executor to run queries on. */
+    protected final Executor executor;
+    
+    /** The time in milliseconds the queries wait for demand before they are cancelled. */
+    protected final long demandTimeout;
+    
+    /**
+     * Instantiates a new {@link SimpleOrientReactiveRepository}.
+     *
+     * @param operations the orient operations
+     * @param domainClass the domain class
+     * @param repositoryInterface the target repository interface
+     * @param executor the executor to run queries on
+     * @param demandTimeout the time in milliseconds the queries wait for demand before they are cancelled,
+     *            non-positive to wait until the subscription is cancelled
+     */
+    public SimpleOrientReactiveRepository(OrientOperations operations, Class<T> domainClass, Class<?> repositoryInterface, Executor executor, long demandTimeout) {
+        super();
+        this.operations = operations;
+        this.domainClass = domainClass;
+        this.repositoryInterface = repositoryInterface;
+        this.executor = executor;
+        this.demandTimeout = demandTimeout;
+    }
+    
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.repository.OrientReactiveRepository#findOne(java.lang.String)
+     */
+    @Override
+    public Publisher<T> findOne(String id) {
+        return publish(OrientSqlBuilder.reuse().select().from(new ORecordId(id).toString()).build());
+    }
+    
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.repository.OrientReactiveRepository#findAll()
+     */
+    @Override
+    public Publisher<T> findAll() {
+        return findAll((Sort) null);
+    }
+    
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.repository.OrientReactiveRepository#findAll(org.springframework.data.domain.Sort)
+     */
+    @Override
+    public Publisher<T> findAll(Sort sort) {
+        return publish(OrientSqlBuilder.reuse().select().from(getDefaultSource()).orderBy(sort).build());
+    }
+    
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.repository.OrientReactiveRepository#findAll(org.springframework.data.orient.repository.OrientSource)
+     */
+    @Override
+    public Publisher<T> findAll(OrientSource source) {
+        return publish(OrientSqlBuilder.reuse().select().from(QueryUtils.toSource(source)).build());
+    }
+    
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.repository.OrientReactiveRepository#count()
+     */
+    @Override
+    public Publisher<Long> count() {
+        String query = OrientSqlBuilder.reuse().selectCount().from(getDefaultSource()).build();
+        
+        return new OrientQueryPublisher<Long>(operations, executor, new OSQLSynchQuery<ODocument>(query), NO_VALUES, null, DetachMode.NONE, demandTimeout) {
+            @Override
+            protected Object convert(Object record) {
+                return ((ODocument) record).field("count");
+            }
+        };
+    }
+    
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.repository.OrientReactiveRepository#getDomainClass()
+     */
+    @Override
+    public Class<T> getDomainClass() {
+        return domainClass;
+    }
+    
+    /**
+     * Creates the publisher of the results of the given query.
+     *
+     * @param query the query
+     * @return the publisher
+     */
+    protected Publisher<T> publish(String query) {
+        return new OrientQueryPublisher<T>(operations, executor, new OSQLSynchQuery<T>(query), NO_VALUES, null, DetachMode.ENTITY, demandTimeout);
+    }
+    
+    protected String getDefaultSource() {
+        return QueryUtils.toSource(domainClass);
+    }
+}
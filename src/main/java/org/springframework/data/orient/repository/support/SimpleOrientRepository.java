@@ -1,28 +1,46 @@
 package org.springframework.data.orient.repository.support;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
 
-import org.jooq.DSLContext;
-import org.jooq.Query;
-import org.jooq.Record;
-import org.jooq.SQLDialect;
-import org.jooq.SelectJoinStep;
-import org.jooq.SelectLimitStep;
-import org.jooq.conf.ParamType;
-import org.jooq.impl.DSL;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.data.orient.core.OrientOperations;
+import org.springframework.data.orient.core.OrientWriteBehindBuffer;
+import org.springframework.data.orient.object.repository.Detach;
+import org.springframework.data.orient.object.repository.DetachMode;
 import org.springframework.data.orient.repository.OrientRepository;
 import org.springframework.data.orient.repository.OrientSource;
+import org.springframework.data.orient.repository.annotation.FetchPlan;
+import org.springframework.data.orient.repository.query.OrientQuerySettings;
+import org.springframework.data.orient.repository.query.OrientSqlBuilder;
 import org.springframework.data.orient.repository.query.QueryUtils;
+import org.springframework.orm.orient.OrientTransactionManager;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
 
+import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.id.ORecordId;
 import com.orientechnologies.orient.core.sql.query.OSQLQuery;
 import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
@@ -45,6 +63,21 @@ public class SimpleOrientRepository<T> implements OrientRepository<T> {
     
     /** The repository interface. */
     protected final Class<?> repositoryInterface;
+    
+    /** The fetch plan of the entities loaded by ids, declared on {@code findAll(Iterable)} of the repository interface. */
+    private final String fetchPlan;
+    
+    /** The detach mode of the entities loaded by ids, declared on {@code findAll(Iterable)} of the repository interface. */
+    private final DetachMode detachMode;
+    
+    /** The maximum number of records read or written by a single statement. */
+    private int batchSize = OrientQuerySettings.DEFAULT_BATCH_SIZE;
+    
+    /** The buffer the updates are written behind with, {@literal null} if they are written immediately. */
+    private OrientWriteBehindBuffer writeBehindBuffer;
+    
+    /** The template running every chunk of the batch operations in a new transaction. */
+    private TransactionTemplate chunkTransactionTemplate;
 
     /**
      * Instantiates a new {@link SimpleOrientRepository} from the given {@link OrientOperations} and domain class.
@@ -58,6 +91,45 @@ public class SimpleOrientRepository<T> implements OrientRepository<T> {
         this.operations = operations;
         this.domainClass = domainClass;
         this.repositoryInterface = repositoryInterface;
+        
+        Method findAllByIds = repositoryInterface == null ? null : ReflectionUtils.findMethod(repositoryInterface, "findAll", Iterable.class);
+        String plan = findAllByIds == null ? null : (String) AnnotationUtils.getValue(AnnotationUtils.findAnnotation(findAllByIds, FetchPlan.class));
+        DetachMode mode = findAllByIds == null ? null : (DetachMode) AnnotationUtils.getValue(AnnotationUtils.findAnnotation(findAllByIds, Detach.class));
+        
+        this.fetchPlan = StringUtils.hasText(plan) ? plan : null;
+        this.detachMode = mode == null ? DetachMode.NONE : mode;
+        this.chunkTransactionTemplate = createChunkTransactionTemplate(null);
+    }
+    
+    /**
+     * Sets the maximum number of records read or written by a single statement of the batch operations.
+     *
+     * @param batchSize the new batch size
+     */
+    public void setBatchSize(int batchSize) {
+        Assert.isTrue(batchSize > 0, "Batch size must be positive!");
+        this.batchSize = batchSize;
+    }
+    
+    /**
+     * Sets the buffer {@link #save(Object)} writes the updates of persistent entities behind with. Saves within a
+     * transaction of the caller bypass the buffer, so they are rolled back with the transaction.
+     *
+     * @param writeBehindBuffer the new write-behind buffer, {@literal null} to write the updates immediately
+     */
+    public void setWriteBehindBuffer(OrientWriteBehindBuffer writeBehindBuffer) {
+        this.writeBehindBuffer = writeBehindBuffer;
+    }
+    
+    /**
+     * Sets the transaction manager every chunk of the batch operations runs a new transaction with. It should be the
+     * transaction manager the methods of the repository are transactional with.
+     *
+     * @param transactionManager the new transaction manager, {@literal null} to use an {@link OrientTransactionManager}
+     *            over the database factory of the operations
+     */
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.chunkTransactionTemplate = createChunkTransactionTemplate(transactionManager);
     }
 
     /* (non-Javadoc)
@@ -65,6 +137,11 @@ public class SimpleOrientRepository<T> implements OrientRepository<T> {
      */
     @Transactional(readOnly = false)
     public <S extends T> S save(S entity) {
+        // Updates buffered within the transaction of the caller would be written even if it is rolled back
+        if (writeBehindBuffer != null && !isCallerTransactionActive()) {
+            return writeBehindBuffer.save(entity);
+        }
+        
         return operations.save(entity);
     }
 
@@ -86,28 +163,61 @@ public class SimpleOrientRepository<T> implements OrientRepository<T> {
             return Collections.emptyList();
         }
     
-        List<S> result = new ArrayList<S>();
-    
-        for (S entity : entities) {
-            result.add(save(entity));
-        }
-    
-        return result;
+        return operations.saveAll(entities, null);
     }
     
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.repository.OrientRepository#save(java.lang.Iterable, java.lang.String)
+     */
+    @Override
     @Transactional(readOnly = false)
     public <S extends T> Iterable<S> save(Iterable<S> entities, String cluster) {
         if (entities == null) {
             return Collections.emptyList();
         }
     
-        List<S> result = new ArrayList<S>();
+        return operations.saveAll(entities, cluster);
+    }
     
-        for (S entity : entities) {
-            result.add(save(entity, cluster));
-        }
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.repository.OrientRepository#saveBatch(java.lang.Iterable)
+     */
+    @Override
+    @Transactional(readOnly = false, propagation = Propagation.SUPPORTS)
+    public void saveBatch(Iterable<? extends T> entities) {
+        saveBatch(entities, null);
+    }
     
-        return result;
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.repository.OrientRepository#saveBatch(java.lang.Iterable, java.lang.String)
+     */
+    @Override
+    @Transactional(readOnly = false, propagation = Propagation.SUPPORTS)
+    public void saveBatch(Iterable<? extends T> entities, String cluster) {
+        if (entities == null) {
+            return;
+        }
+        
+        // Joining the transaction of the caller keeps the entities atomic with the rest of its work
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            operations.saveAll(entities, cluster);
+            return;
+        }
+        
+        List<T> chunk = new ArrayList<T>(batchSize);
+        
+        for (T entity : entities) {
+            chunk.add(entity);
+            
+            if (chunk.size() == batchSize) {
+                insertChunk(chunk, cluster);
+                chunk = new ArrayList<T>(batchSize);
+            }
+        }
+        
+        if (!chunk.isEmpty()) {
+            insertChunk(chunk, cluster);
+        }
     }
     
     /* (non-Javadoc)
@@ -121,7 +231,7 @@ public class SimpleOrientRepository<T> implements OrientRepository<T> {
      * @see org.springframework.data.repository.CrudRepository#exists(java.io.Serializable)
      */
     public boolean exists(String id) {
-        return findOne(id) != null;
+        return operations.exists(new ORecordId(id));
     }
 
     /* (non-Javadoc)
@@ -137,7 +247,7 @@ public class SimpleOrientRepository<T> implements OrientRepository<T> {
      */
     @Override
     public <S extends T> List<S> findAll(Class<S> domainClass) {
-        return null;
+        return operations.query(new OSQLSynchQuery<S>(OrientSqlBuilder.reuse().select().from(QueryUtils.toSource(domainClass)).build()));
     }
 
     /* (non-Javadoc)
@@ -161,7 +271,41 @@ public class SimpleOrientRepository<T> implements OrientRepository<T> {
      */
     @Override
     public List<T> findAll(Iterable<String> ids) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        if (ids == null) {
+            return Collections.emptyList();
+        }
+        
+        List<ORID> rids = new ArrayList<ORID>();
+        
+        for (String id : ids) {
+            rids.add(new ORecordId(id));
+        }
+        
+        // Sorting groups the records of a cluster together and keeps the positions ascending within each cluster
+        List<ORID> distinctRids = new ArrayList<ORID>(new TreeSet<ORID>(rids));
+        Map<ORID, T> entities = new HashMap<ORID, T>(distinctRids.size() * 2);
+        
+        for (int from = 0; from < distinctRids.size(); from += batchSize) {
+            List<ORID> chunk = distinctRids.subList(from, Math.min(from + batchSize, distinctRids.size()));
+            
+            List<T> loaded = operations.query(getQuery(chunk), getDetachMode());
+            
+            for (T entity : loaded) {
+                entities.put(operations.getIdentity(entity), entity);
+            }
+        }
+        
+        List<T> result = new ArrayList<T>(rids.size());
+        
+        for (ORID rid : rids) {
+            T entity = entities.get(rid);
+            
+            if (entity != null) {
+                result.add(entity);
+            }
+        }
+        
+        return result;
     }
 
     /* (non-Javadoc)
@@ -222,9 +366,19 @@ public class SimpleOrientRepository<T> implements OrientRepository<T> {
      */
     @Transactional(readOnly = false)
     public void delete(Iterable<? extends T> entities) {
+        List<ORID> rids = new ArrayList<ORID>();
+        
         for (T entity : entities) {
-            delete(entity);
+            ORID rid = operations.getIdentity(entity);
+            
+            // Entities that were never saved have nothing to delete
+            if (rid != null && rid.isValid()) {
+                rids.add(rid);
+            }
         }
+        
+        // The records are deleted within the transaction of the caller, so they are deleted all or none
+        operations.deleteAll(rids);
     }
 
     /* (non-Javadoc)
@@ -232,29 +386,43 @@ public class SimpleOrientRepository<T> implements OrientRepository<T> {
      */
     @Transactional(readOnly = false)
     public void deleteAll() {
-        for (T entity : operations.browseClass(domainClass)) {
-            operations.delete(entity);
-        }
+        operations.deleteAllOfClass(QueryUtils.toSource(domainClass));
     }
 
     /* (non-Javadoc)
      * @see org.springframework.data.orient.repository.OrientRepository#deleteAll(java.lang.String)
      */
     @Override
+    @Transactional(readOnly = false)
     public void deleteAll(String cluster) {
-        for (T entity : findAll(cluster)) {
-            operations.delete(entity);
-        }
+        operations.deleteAllOfCluster(cluster);
     }
 
     /* (non-Javadoc)
      * @see org.springframework.data.orient.repository.OrientRepository#deleteAll(java.lang.Class)
      */
     @Override
+    @Transactional(readOnly = false)
     public void deleteAll(Class<? extends T> domainClass) {
-        for (T entity : findAll(domainClass)) {
-            operations.delete(entity);
-        }
+        operations.deleteAllOfClass(QueryUtils.toSource(domainClass));
+    }
+
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.repository.OrientRepository#truncate()
+     */
+    @Override
+    @Transactional(propagation = Propagation.NEVER)
+    public void truncate() {
+        operations.truncateClass(QueryUtils.toSource(domainClass));
+    }
+
+    /* (non-Javadoc)
+     * @see org.springframework.data.orient.repository.OrientRepository#truncate(java.lang.String)
+     */
+    @Override
+    @Transactional(propagation = Propagation.NEVER)
+    public void truncate(String cluster) {
+        operations.truncateCluster(cluster);
     }
 
     /* (non-Javadoc)
@@ -293,6 +461,48 @@ public class SimpleOrientRepository<T> implements OrientRepository<T> {
         return new PageImpl<T>(content, pageable, total);
     }
     
+    /**
+     * Checks whether the current repository method runs within a transaction of its caller, rather than in a
+     * transaction started for the method itself.
+     *
+     * @return true, if the caller started the transaction
+     */
+    private boolean isCallerTransactionActive() {
+        try {
+            return !TransactionAspectSupport.currentTransactionStatus().isNewTransaction();
+        } catch (NoTransactionException e) {
+            return TransactionSynchronizationManager.isActualTransactionActive();
+        }
+    }
+    
+    /**
+     * Inserts the given entities with the massive insert intent in a new transaction of their own.
+     *
+     * @param chunk the entities
+     * @param cluster the cluster name, {@literal null} for the default cluster of the entities
+     */
+    private void insertChunk(final List<T> chunk, final String cluster) {
+        chunkTransactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                operations.insertAll(chunk, cluster);
+            }
+        });
+    }
+    
+    /**
+     * Creates the template running every chunk of the batch operations in a new transaction.
+     *
+     * @param transactionManager the transaction manager, {@literal null} to use an {@link OrientTransactionManager}
+     * @return the transaction template
+     */
+    private TransactionTemplate createChunkTransactionTemplate(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager != null ? transactionManager : new OrientTransactionManager(operations.getDatabaseFactory()));
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        
+        return template;
+    }
+    
     /**
      * Creates the query for the given {@link Sort}.
      *
@@ -311,9 +521,9 @@ public class SimpleOrientRepository<T> implements OrientRepository<T> {
      * @return the query
      */
     private OSQLQuery<T> getQuery(String source, Sort sort) {
-        Query query = DSL.using(SQLDialect.MYSQL).select().from(source).orderBy(QueryUtils.toOrders(sort));
+        String query = OrientSqlBuilder.reuse().select().from(source).orderBy(sort).build();
 
-        return new OSQLSynchQuery<T>(query.getSQL(ParamType.INLINED));
+        return new OSQLSynchQuery<T>(query);
     }
     
     /**
@@ -323,14 +533,35 @@ public class SimpleOrientRepository<T> implements OrientRepository<T> {
      * @return the query
      */
     private OSQLQuery<T> getQuery(Pageable pageable) {
-        DSLContext context = DSL.using(SQLDialect.MYSQL);
-        SelectJoinStep<? extends Record> joinStep = context.select().from(domainClass.getSimpleName());
+        String query = OrientSqlBuilder.reuse().select().from(getDefaultSource()).orderBy(pageable.getSort())
+                .skip(pageable.getOffset()).limit(pageable.getPageSize()).build();
         
-        Sort sort = pageable.getSort();
-        SelectLimitStep<? extends Record> limitStep = sort == null ? joinStep : joinStep.orderBy(QueryUtils.toOrders(sort));
-        Query query = pageable == null ? limitStep : limitStep.limit(pageable.getPageSize()).offset(pageable.getOffset());
+        return new OSQLSynchQuery<T>(query);
+    }
+    
+    /**
+     * Creates the query loading the records with the given ids.
+     *
+     * @param rids the record ids
+     * @return the query
+     */
+    private OSQLQuery<T> getQuery(Collection<ORID> rids) {
+        OSQLQuery<T> query = new OSQLSynchQuery<T>(OrientSqlBuilder.reuse().select().from(QueryUtils.ridsToSource(rids)).build());
         
-        return new OSQLSynchQuery<T>(query.getSQL(ParamType.INLINED));
+        if (fetchPlan != null) {
+            query.setFetchPlan(fetchPlan);
+        }
+        
+        return query;
+    }
+    
+    /**
+     * Gets the detach mode of the entities loaded by {@link #findAll(Iterable)}.
+     *
+     * @return the detach mode
+     */
+    protected DetachMode getDetachMode() {
+        return detachMode;
     }
     
     protected String getDefaultSource() {
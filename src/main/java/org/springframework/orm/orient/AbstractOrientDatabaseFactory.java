@@ -1,5 +1,9 @@
 package org.springframework.orm.orient;
 
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
 import javax.annotation.PostConstruct;
 
 import org.springframework.util.Assert;
@@ -8,6 +12,7 @@ import com.orientechnologies.orient.core.db.ODatabase;
 import com.orientechnologies.orient.core.db.ODatabaseComplex;
 import com.orientechnologies.orient.core.db.ODatabasePoolBase;
 import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
+import com.orientechnologies.orient.core.hook.ORecordHook;
 
 /**
  * A base factory for creating {@link ODatabase} objects.
@@ -37,6 +42,12 @@ public abstract class AbstractOrientDatabaseFactory<T extends ODatabase> {
 
     private String url;
     
+    /** The hooks registered on every database opened by the factory. */
+    private final Set<ORecordHook> hooks = new CopyOnWriteArraySet<ORecordHook>();
+    
+    /** The listeners notified of the writes bypassing the hooks. */
+    private final Set<OrientWriteListener> writeListeners = new CopyOnWriteArraySet<OrientWriteListener>();
+    
     ODatabasePoolBase<T> pool;
 
     @PostConstruct
@@ -71,6 +82,62 @@ public abstract class AbstractOrientDatabaseFactory<T extends ODatabase> {
 
     protected abstract ODatabaseComplex<?> newDatabase();
 
+    /**
+     * Adds the hook to register on every database opened by the factory from now on.
+     *
+     * @param hook the hook
+     */
+    public void addHook(ORecordHook hook) {
+        hooks.add(hook);
+    }
+
+    /**
+     * Gets the hooks added to the factory.
+     *
+     * @return the hooks
+     */
+    public Set<ORecordHook> getHooks() {
+        return Collections.unmodifiableSet(hooks);
+    }
+
+    /**
+     * Adds the listener to notify of the writes bypassing the hooks added to the factory.
+     *
+     * @param listener the listener
+     */
+    public void addWriteListener(OrientWriteListener listener) {
+        writeListeners.add(listener);
+    }
+
+    /**
+     * Notifies the listeners added to the factory that the records of the given classes or clusters were written
+     * bypassing the hooks, e.g. with the massive insert intent.
+     *
+     * @param sources the names of the classes and clusters
+     */
+    public void notifyWritten(Iterable<String> sources) {
+        for (OrientWriteListener listener : writeListeners) {
+            listener.written(sources);
+        }
+    }
+
+    /**
+     * Registers the hooks added to the factory on the given database. Pooled databases are reused, so hooks that are
+     * already registered are skipped.
+     *
+     * @param db the database
+     * @return the database
+     */
+    protected <D extends ODatabaseComplex<?>> D registerHooks(D db) {
+        for (ORecordHook hook : hooks) {
+            if (!db.getHooks().containsKey(hook)) {
+                db.registerHook(hook);
+            }
+        }
+        
+        return db;
+    }
+
     public ODatabaseComplex<?> db() {
         return ODatabaseRecordThreadLocal.INSTANCE.get().getDatabaseOwner();
     }
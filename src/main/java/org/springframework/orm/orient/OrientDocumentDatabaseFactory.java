@@ -28,7 +28,7 @@ public class OrientDocumentDatabaseFactory extends AbstractOrientDatabaseFactory
      */
     @Override
     public ODatabaseDocumentTx openDatabase() {
-        db = pool.acquire();
+        db = registerHooks(pool.acquire());
         return db;
     }
     
@@ -28,7 +28,7 @@ public class OrientObjectDatabaseFactory extends AbstractOrientDatabaseFactory<O
      */
     @Override
     public OObjectDatabaseTx openDatabase() {
-        db = pool.acquire();
+        db = registerHooks(pool.acquire());
         return db;
     }
 
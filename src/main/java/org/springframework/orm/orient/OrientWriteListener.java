@@ -0,0 +1,18 @@
+package org.springframework.orm.orient;
+
+/**
+ * Listener notified of the classes and clusters written without triggering the record hooks, e.g. with the massive
+ * insert intent, which unregisters the hooks of the database.
+ *
+ * @author Dzmitry_Naskou
+ * @see AbstractOrientDatabaseFactory#addWriteListener(OrientWriteListener)
+ */
+public interface OrientWriteListener {
+
+    /**
+     * Called after the records of the given classes or clusters were written bypassing the record hooks.
+     *
+     * @param sources the names of the classes and clusters
+     */
+    void written(Iterable<String> sources);
+}
@@ -0,0 +1,42 @@
+package org.springframework.data.orient.repository.query;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Utility class to run queries as Java 8 {@link CompletableFuture}s. Compiled against the JDK 8 API by the {@code java8}
+ * profile and only called through {@link Java8Support}.
+ *
+ * @author Dzmitry_Naskou
+ */
+final class CompletableFutureUtils {
+
+    private CompletableFutureUtils() {
+        super();
+    }
+    
+    /**
+     * Calls the given {@link Callable} on the given executor.
+     *
+     * @param callable the callable
+     * @param executor the executor
+     * @return the future result
+     */
+    static <T> CompletableFuture<T> supplyAsync(final Callable<T> callable, Executor executor) {
+        return CompletableFuture.supplyAsync(new Supplier<T>() {
+            @Override
+            public T get() {
+                try {
+                    return callable.call();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }
+        }, executor);
+    }
+}
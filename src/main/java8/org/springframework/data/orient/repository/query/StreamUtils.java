@@ -0,0 +1,38 @@
+package org.springframework.data.orient.repository.query;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.springframework.data.orient.repository.CloseableIterator;
+
+/**
+ * Utility class to expose query results as Java 8 {@link Stream}s. Compiled against the JDK 8 API by the {@code java8}
+ * profile and only called through {@link Java8Support}.
+ *
+ * @author Dzmitry_Naskou
+ */
+final class StreamUtils {
+
+    private StreamUtils() {
+        super();
+    }
+    
+    /**
+     * Creates a sequential {@link Stream} over the given iterator closing it when the stream is closed.
+     *
+     * @param iterator the iterator
+     * @return the stream
+     */
+    static <T> Stream<T> toStream(final CloseableIterator<T> iterator) {
+        Stream<T> stream = StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+        
+        return stream.onClose(new Runnable() {
+            @Override
+            public void run() {
+                iterator.close();
+            }
+        });
+    }
+}
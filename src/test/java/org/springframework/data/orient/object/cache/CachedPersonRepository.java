@@ -0,0 +1,13 @@
+package org.springframework.data.orient.object.cache;
+
+import java.util.List;
+
+import org.springframework.data.orient.object.repository.OrientObjectRepository;
+import org.springframework.data.orient.repository.annotation.CachedQuery;
+import org.test.data.Person;
+
+public interface CachedPersonRepository extends OrientObjectRepository<Person> {
+
+    @CachedQuery(ttl = 0)
+    List<Person> findByLastName(String lastName);
+}
@@ -0,0 +1,43 @@
+package org.springframework.data.orient.object.cache;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.orient.core.OrientObjectTemplate;
+import org.springframework.data.orient.repository.config.EnableOrientRepositories;
+import org.springframework.orm.orient.OrientObjectDatabaseFactory;
+import org.springframework.orm.orient.OrientTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.test.data.Person;
+
+@Configuration
+@EnableTransactionManagement
+@EnableOrientRepositories(basePackages = "org.springframework.data.orient.object.cache")
+public class CachedPersonRepositoryTestConfiguration {
+
+    @Bean
+    public OrientObjectDatabaseFactory factory() {
+        OrientObjectDatabaseFactory factory =  new OrientObjectDatabaseFactory();
+        
+        factory.setUrl("plocal:test/spring-data-test");
+        factory.setUsername("admin");
+        factory.setPassword("admin");
+        return factory;
+    }
+    
+    @Bean
+    public OrientObjectTemplate objectTemplate() {
+        return new OrientObjectTemplate(factory());
+    }
+    
+    @Bean
+    public OrientTransactionManager transactionManager() {
+        return new OrientTransactionManager(factory());
+    }
+    
+    @PostConstruct
+    public void registerEntities() {
+        factory().db().getEntityManager().registerEntityClass(Person.class);
+    }
+}
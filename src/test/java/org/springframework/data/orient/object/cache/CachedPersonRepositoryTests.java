@@ -0,0 +1,115 @@
+package org.springframework.data.orient.object.cache;
+
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Assert;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.orient.core.OrientBulkLoader;
+import org.springframework.orm.orient.OrientObjectDatabaseFactory;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
+import org.springframework.test.context.transaction.TransactionConfiguration;
+import org.test.data.Person;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.orient.core.hook.ORecordHook;
+import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
+
+@TransactionConfiguration(defaultRollback = false)
+@ContextConfiguration(classes = CachedPersonRepositoryTestConfiguration.class)
+public class CachedPersonRepositoryTests extends AbstractTestNGSpringContextTests {
+
+    @Autowired
+    OrientObjectDatabaseFactory dbf;
+    
+    @Autowired
+    CachedPersonRepository repository;
+    
+    /** The last name unique to the test, so the rows of earlier runs are not found. */
+    private String lastName;
+    
+    @BeforeMethod
+    public void before() {
+        lastName = "Cached" + System.nanoTime();
+        save("Dzmitry");
+    }
+    
+    @Test
+    public void repeatedQueryIsServedFromCache() {
+        Assert.assertEquals(1, repository.findByLastName(lastName).size());
+        
+        saveWithoutHooks("Ivan");
+        
+        // The cache is not aware of the write, so the cached result is returned
+        Assert.assertEquals(1, repository.findByLastName(lastName).size());
+        
+        dbf.notifyWritten(Arrays.asList("Person"));
+        
+        Assert.assertEquals(2, repository.findByLastName(lastName).size());
+    }
+    
+    @Test
+    public void saveEvictsCachedResult() {
+        Assert.assertEquals(1, repository.findByLastName(lastName).size());
+        Assert.assertEquals(1, repository.findByLastName(lastName).size());
+        
+        save("Ivan");
+        
+        Assert.assertEquals(2, repository.findByLastName(lastName).size());
+    }
+    
+    @Test
+    public void bulkLoadEvictsCachedResult() {
+        Assert.assertEquals(1, repository.findByLastName(lastName).size());
+        
+        Person person = new Person();
+        person.setFirstName("Bulk");
+        person.setLastName(lastName);
+        
+        new OrientBulkLoader(dbf).load(Person.class, Arrays.asList(person));
+        
+        Assert.assertEquals(2, repository.findByLastName(lastName).size());
+    }
+    
+    @Test
+    public void cachedResultIsCopied() {
+        List<Person> persons = repository.findByLastName(lastName);
+        persons.get(0).setFirstName("Changed");
+        persons.clear();
+        
+        persons = repository.findByLastName(lastName);
+        
+        Assert.assertEquals(1, persons.size());
+        Assert.assertEquals("Dzmitry", persons.get(0).getFirstName());
+    }
+    
+    private void save(String firstName) {
+        Person person = new Person();
+        person.setFirstName(firstName);
+        person.setLastName(lastName);
+        
+        repository.save(person);
+    }
+    
+    private void saveWithoutHooks(String firstName) {
+        OObjectDatabaseTx db = dbf.db();
+        
+        Person person = new Person();
+        person.setFirstName(firstName);
+        person.setLastName(lastName);
+        
+        for (ORecordHook hook : dbf.getHooks()) {
+            db.unregisterHook(hook);
+        }
+        
+        try {
+            db.save(person);
+        } finally {
+            for (ORecordHook hook : dbf.getHooks()) {
+                db.registerHook(hook);
+            }
+        }
+    }
+}
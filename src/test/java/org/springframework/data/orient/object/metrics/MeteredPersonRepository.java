@@ -0,0 +1,19 @@
+package org.springframework.data.orient.object.metrics;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.orient.object.repository.OrientObjectRepository;
+import org.springframework.data.orient.repository.annotation.Query;
+import org.test.data.Person;
+
+public interface MeteredPersonRepository extends OrientObjectRepository<Person> {
+
+    List<Person> findByLastName(String lastName);
+    
+    Page<Person> findByLastName(String lastName, Pageable pageable);
+    
+    @Query("select from UnknownClass where lastName = ?")
+    List<Person> queryUnknownByLastName(String lastName);
+}
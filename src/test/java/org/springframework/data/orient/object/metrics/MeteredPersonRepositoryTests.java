@@ -0,0 +1,74 @@
+package org.springframework.data.orient.object.metrics;
+
+import junit.framework.Assert;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.orient.object.person.PersonRepositoryTests;
+import org.springframework.data.orient.repository.query.HistogramQueryMetrics;
+import org.springframework.data.orient.repository.query.HistogramQueryMetrics.Statistics;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@ContextConfiguration(classes = MeteredPersonRepositoryTestConfiguration.class)
+public class MeteredPersonRepositoryTests extends AbstractTestNGSpringContextTests {
+
+    @Autowired
+    MeteredPersonRepository repository;
+    
+    @Autowired
+    HistogramQueryMetrics metrics;
+    
+    /** The last name unique to the test, so the rows of earlier runs are not counted. */
+    private String lastName;
+    
+    @BeforeMethod
+    public void before() {
+        lastName = "Metered" + System.nanoTime();
+        repository.save(PersonRepositoryTests.newPersons(lastName, 2));
+        
+        metrics.reset();
+    }
+    
+    @Test
+    public void overloadedQueryMethodsAreRecordedSeparately() {
+        repository.findByLastName(lastName);
+        repository.findByLastName(lastName);
+        repository.findByLastName(lastName, new PageRequest(0, 1));
+        
+        Statistics list = metrics.getStatistics("MeteredPersonRepository.findByLastName(String)");
+        Statistics page = metrics.getStatistics("MeteredPersonRepository.findByLastName(String,Pageable)");
+        
+        Assert.assertEquals(2, list.getCount());
+        Assert.assertEquals(4, list.getRows());
+        Assert.assertEquals(1, page.getCount());
+        Assert.assertEquals(1, page.getRows());
+    }
+    
+    @Test
+    public void failedQueryMethodIsRecorded() {
+        try {
+            repository.queryUnknownByLastName(lastName);
+            Assert.fail("Query of an unknown class must fail!");
+        } catch (RuntimeException e) {
+            // expected
+        }
+        
+        Statistics statistics = metrics.getStatistics("MeteredPersonRepository.queryUnknownByLastName(String)");
+        
+        Assert.assertEquals(1, statistics.getCount());
+        Assert.assertEquals(1, statistics.getFailures());
+    }
+    
+    @Test
+    public void crudMethodsAreRecorded() {
+        repository.count();
+        
+        Statistics statistics = metrics.getStatistics("MeteredPersonRepository.count()");
+        
+        Assert.assertEquals(1, statistics.getCount());
+        Assert.assertEquals(0, statistics.getFailures());
+        Assert.assertEquals(0, statistics.getRows());
+    }
+}
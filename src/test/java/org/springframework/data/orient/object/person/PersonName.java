@@ -0,0 +1,8 @@
+package org.springframework.data.orient.object.person;
+
+public interface PersonName {
+
+    String getFirstName();
+    
+    String getLastName();
+}
@@ -0,0 +1,10 @@
+package org.springframework.data.orient.object.person;
+
+import org.reactivestreams.Publisher;
+import org.springframework.data.orient.repository.OrientReactiveRepository;
+import org.test.data.Person;
+
+public interface PersonReactiveRepository extends OrientReactiveRepository<Person> {
+
+    Publisher<Person> findByLastName(String lastName);
+}
@@ -0,0 +1,68 @@
+package org.springframework.data.orient.object.person;
+
+import junit.framework.Assert;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.orient.repository.query.RecordingSubscriber;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
+import org.test.data.Person;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@ContextConfiguration(classes = PersonRepositoryTestConfiguration.class)
+public class PersonReactiveRepositoryTests extends AbstractTestNGSpringContextTests {
+
+    @Autowired
+    PersonReactiveRepository reactiveRepository;
+    
+    @Autowired
+    PersonRepository repository;
+    
+    /** The last name unique to the test, so the rows of earlier runs are not published. */
+    private String lastName;
+    
+    @BeforeMethod
+    public void before() {
+        lastName = "Reactive" + System.nanoTime();
+        
+        for (int i = 0; i < 3; i++) {
+            Person person = new Person();
+            person.setFirstName("Dzmitry");
+            person.setLastName(lastName);
+            repository.save(person);
+        }
+    }
+    
+    @Test
+    public void findByLastNameHonoursDemand() throws InterruptedException {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        reactiveRepository.findByLastName(lastName).subscribe(subscriber);
+        
+        subscriber.subscription.request(2);
+        Assert.assertTrue(subscriber.awaitElements(2));
+        Thread.sleep(200);
+        
+        Assert.assertEquals(2, subscriber.elements.size());
+        Assert.assertFalse(subscriber.isTerminated());
+        
+        subscriber.subscription.request(1);
+        Assert.assertTrue(subscriber.awaitElements(3));
+        subscriber.subscription.request(1);
+        Assert.assertTrue(subscriber.awaitTermination());
+        
+        Assert.assertTrue(subscriber.completed);
+        Assert.assertEquals(3, subscriber.elements.size());
+    }
+    
+    @Test
+    public void countPublishesCount() throws InterruptedException {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        reactiveRepository.count().subscribe(subscriber);
+        
+        subscriber.subscription.request(1);
+        Assert.assertTrue(subscriber.awaitTermination());
+        
+        Assert.assertTrue(subscriber.completed);
+        Assert.assertEquals(repository.count(), ((Number) subscriber.elements.get(0)).longValue());
+    }
+}
@@ -1,13 +1,18 @@
 package org.springframework.data.orient.object.person;
 
 import java.util.List;
+import java.util.concurrent.Future;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.orient.object.repository.Detach;
 import org.springframework.data.orient.object.repository.DetachMode;
 import org.springframework.data.orient.object.repository.OrientObjectRepository;
+import org.springframework.data.orient.repository.CloseableIterator;
+import org.springframework.data.orient.repository.annotation.ConcurrentCount;
 import org.springframework.data.orient.repository.annotation.FetchPlan;
+import org.springframework.data.orient.repository.annotation.Modifying;
 import org.springframework.data.orient.repository.annotation.Query;
 import org.test.data.Person;
 
@@ -18,7 +23,24 @@ public interface PersonRepository extends OrientObjectRepository<Person> {
     
     Page<Person> findByFirstName(String firstName, Pageable pageable);
     
+    @Query("select from person where lastName = ? order by firstName")
+    Page<Person> queryByLastName(String lastName, Pageable pageable);
+    
     List<Person> findByLastName(String lastName);
+    
+    Slice<Person> findByLastName(String lastName, Pageable pageable);
+    
+    List<PersonName> readByLastName(String lastName);
+    
+    Slice<PersonName> readByLastName(String lastName, Pageable pageable);
+    
+    CloseableIterator<Person> readByFirstName(String firstName);
+    
+    List<Person> findTop2ByLastNameOrderByFirstNameAsc(String lastName);
+    
+    Page<Person> findTop3ByLastNameOrderByFirstNameAsc(String lastName, Pageable pageable);
+    
+    Future<List<Person>> queryByLastName(String lastName);
 
     List<Person> findByLastNameLike(String lastName);
 
@@ -29,8 +51,19 @@ public interface PersonRepository extends OrientObjectRepository<Person> {
     List<Person> findByFirstNameLike(String string);
     
     List<Person> findByFirstNameStartsWith(String firstName);
+    
+    @ConcurrentCount
+    Page<Person> findByFirstNameStartsWith(String firstName, Pageable pageable);
 
     Long countByFirstName(String firstName);
+    
+    boolean existsByLastName(String lastName);
+    
+    long deleteByLastName(String lastName);
+    
+    @Modifying
+    @Query("update person set firstName = ? where lastName = ?")
+    int updateFirstNameByLastName(String firstName, String lastName);
 
     @Detach(DetachMode.ENTITY)
     List<Person> findByAddress_City(String city);
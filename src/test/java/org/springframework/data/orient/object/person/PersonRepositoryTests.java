@@ -1,18 +1,41 @@
 package org.springframework.data.orient.object.person;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
 import junit.framework.Assert;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.orient.core.OrientBulkLoader;
+import org.springframework.data.orient.core.OrientObjectTemplate;
+import org.springframework.data.orient.core.OrientWriteBehindBuffer;
+import org.springframework.data.orient.repository.CloseableIterator;
+import org.springframework.data.orient.repository.ContinuationToken;
+import org.springframework.data.orient.repository.KeysetPageRequest;
 import org.springframework.orm.orient.OrientObjectDatabaseFactory;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
 import org.springframework.test.context.transaction.TransactionConfiguration;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.test.data.Address;
 import org.test.data.Employee;
 import org.test.data.Person;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
+
 @TransactionConfiguration(defaultRollback = false)
 @ContextConfiguration(classes = PersonRepositoryTestConfiguration.class)
 public class PersonRepositoryTests extends AbstractTestNGSpringContextTests {
@@ -22,6 +45,9 @@ public class PersonRepositoryTests extends AbstractTestNGSpringContextTests {
     
     @Autowired
     PersonRepository repository;
+    
+    @Autowired
+    PlatformTransactionManager transactionManager;
 
     @BeforeMethod
     public void before() {
@@ -38,6 +64,37 @@ public class PersonRepositoryTests extends AbstractTestNGSpringContextTests {
 
         Assert.assertNotNull(repository.save(person).getRid());
     }
+    
+    /**
+     * Creates the given number of persons with the given last name. The first names are the last name followed by the
+     * index of the person, so they are unique to the test and sorted by the index.
+     *
+     * @param lastName the last name
+     * @param count the number of persons
+     * @return the persons, not saved yet
+     */
+    public static List<Person> newPersons(String lastName, int count) {
+        List<Person> persons = new ArrayList<Person>(count);
+        
+        for (int i = 0; i < count; i++) {
+            Person person = new Person();
+            person.setFirstName(lastName + i);
+            person.setLastName(lastName);
+            persons.add(person);
+        }
+        
+        return persons;
+    }
+    
+    private List<Person> savePersons(String lastName, int count) {
+        List<Person> persons = new ArrayList<Person>(count);
+        
+        for (Person person : newPersons(lastName, count)) {
+            persons.add(repository.save(person));
+        }
+        
+        return persons;
+    }
 
     @Test
     public void checkRepository() {
@@ -65,6 +122,11 @@ public class PersonRepositoryTests extends AbstractTestNGSpringContextTests {
         Assert.assertTrue(repository.findAll().iterator().hasNext());
     }
     
+    @Test
+    public void findAllByClass() {
+        Assert.assertFalse(repository.findAll(Person.class).isEmpty());
+    }
+    
     @Test
     public void printFindAll() {
         for (Person person : repository.findAll()) {
@@ -82,6 +144,389 @@ public class PersonRepositoryTests extends AbstractTestNGSpringContextTests {
         System.out.println(repository.findByFirstName("Dzmitry", new PageRequest(1, 5)));
     }
     
+    @Test
+    public void findByFirstNameStartsWithPageCountedConcurrently() {
+        String lastName = "Concurrent" + System.nanoTime();
+        
+        // The first names of the persons start with their last name
+        savePersons(lastName, 3);
+        
+        Page<Person> first = repository.findByFirstNameStartsWith(lastName, new PageRequest(0, 2));
+        
+        Assert.assertEquals(3, first.getTotalElements());
+        Assert.assertEquals(2, first.getNumberOfElements());
+        
+        Page<Person> last = repository.findByFirstNameStartsWith(lastName, first.nextPageable());
+        
+        Assert.assertEquals(3, last.getTotalElements());
+        Assert.assertEquals(1, last.getNumberOfElements());
+        
+        Page<Person> beyond = repository.findByFirstNameStartsWith(lastName, new PageRequest(5, 2));
+        
+        Assert.assertEquals(3, beyond.getTotalElements());
+        Assert.assertFalse(beyond.hasContent());
+    }
+    
+    @Test
+    public void queryByLastNameAsync() throws Exception {
+        String lastName = "Async" + System.nanoTime();
+        
+        savePersons(lastName, 2);
+        
+        List<Person> persons = repository.queryByLastName(lastName).get();
+        
+        Assert.assertEquals(2, persons.size());
+        
+        for (Person person : persons) {
+            Assert.assertEquals(lastName, person.getLastName());
+            Assert.assertNotNull(person.getRid());
+        }
+    }
+    
+    @Test
+    public void findByLastNameSlice() {
+        saveTest();
+        
+        Slice<Person> slice = repository.findByLastName("Naskou", new PageRequest(0, 1));
+        
+        Assert.assertEquals(1, slice.getNumberOfElements());
+        Assert.assertTrue(slice.hasNext());
+    }
+    
+    @Test
+    public void findByLastNameKeysetPages() {
+        String lastName = "Keyset" + System.nanoTime();
+        
+        savePersons(lastName, 5);
+        
+        List<String> firstNames = new ArrayList<String>();
+        Pageable pageable = new KeysetPageRequest(2, new Sort("firstName"));
+        
+        while (pageable != null) {
+            Slice<Person> slice = repository.findByLastName(lastName, pageable);
+            
+            for (Person person : slice) {
+                firstNames.add(person.getFirstName());
+            }
+            
+            pageable = slice.nextPageable();
+            
+            if (pageable != null) {
+                ContinuationToken token = ((KeysetPageRequest) pageable).getToken();
+                Assert.assertEquals(slice.getContent().get(slice.getNumberOfElements() - 1).getRid(), token.getRid());
+            }
+        }
+        
+        Assert.assertEquals(Arrays.asList(lastName + 0, lastName + 1, lastName + 2, lastName + 3, lastName + 4), firstNames);
+    }
+    
+    @Test
+    public void readByLastNameKeysetPages() {
+        String lastName = "Projected" + System.nanoTime();
+        
+        savePersons(lastName, 5);
+        
+        List<String> firstNames = new ArrayList<String>();
+        Pageable pageable = new KeysetPageRequest(2, new Sort("firstName"));
+        
+        while (pageable != null) {
+            Slice<PersonName> slice = repository.readByLastName(lastName, pageable);
+            
+            for (PersonName name : slice) {
+                firstNames.add(name.getFirstName());
+            }
+            
+            pageable = slice.nextPageable();
+            
+            if (pageable != null) {
+                Assert.assertTrue(new ORecordId(((KeysetPageRequest) pageable).getToken().getRid()).isPersistent());
+            }
+        }
+        
+        Assert.assertEquals(Arrays.asList(lastName + 0, lastName + 1, lastName + 2, lastName + 3, lastName + 4), firstNames);
+    }
+    
+    @Test
+    public void queryByLastNamePageCountedByDerivedQuery() {
+        saveTest();
+        
+        Page<Person> page = repository.queryByLastName("Naskou", new PageRequest(0, 1));
+        
+        Assert.assertEquals(1, page.getNumberOfElements());
+        Assert.assertTrue(page.getTotalElements() > 1);
+    }
+    
+    @Test
+    public void readByLastNameProjection() {
+        List<PersonName> names = repository.readByLastName("Naskou");
+        
+        Assert.assertFalse(names.isEmpty());
+        Assert.assertEquals("Naskou", names.get(0).getLastName());
+    }
+    
+    @Test
+    public void findTop2ByLastName() {
+        saveTest();
+        saveTest();
+        
+        Assert.assertEquals(2, repository.findTop2ByLastNameOrderByFirstNameAsc("Naskou").size());
+    }
+    
+    @Test
+    public void findTop3ByLastNamePages() {
+        String lastName = "Top" + System.nanoTime();
+        
+        savePersons(lastName, 5);
+        
+        Page<Person> first = repository.findTop3ByLastNameOrderByFirstNameAsc(lastName, new PageRequest(0, 2));
+        
+        Assert.assertEquals(3, first.getTotalElements());
+        Assert.assertEquals(2, first.getNumberOfElements());
+        
+        Page<Person> last = repository.findTop3ByLastNameOrderByFirstNameAsc(lastName, new PageRequest(1, 2));
+        
+        Assert.assertEquals(3, last.getTotalElements());
+        Assert.assertEquals(1, last.getNumberOfElements());
+        Assert.assertEquals(lastName + 2, last.getContent().get(0).getFirstName());
+        
+        Page<Person> beyond = repository.findTop3ByLastNameOrderByFirstNameAsc(lastName, new PageRequest(2, 2));
+        
+        Assert.assertEquals(3, beyond.getTotalElements());
+        Assert.assertFalse(beyond.hasContent());
+    }
+    
+    @Test
+    public void existsByLastName() {
+        Assert.assertTrue(repository.existsByLastName("Naskou"));
+        Assert.assertFalse(repository.existsByLastName("Unknown"));
+    }
+    
+    @Test
+    public void existsById() {
+        Person person = new Person();
+        person.setFirstName("Dzmitry");
+        person.setLastName("Naskou");
+        
+        Assert.assertTrue(repository.exists(repository.save(person).getRid()));
+    }
+    
+    @Test
+    public void findAllByIdsKeepsOrder() {
+        Person first = new Person();
+        first.setFirstName("First");
+        first.setLastName("Naskou");
+        
+        Person second = new Person();
+        second.setFirstName("Second");
+        second.setLastName("Naskou");
+        
+        String firstId = repository.save(first).getRid();
+        String secondId = repository.save(second).getRid();
+        
+        List<Person> result = repository.findAll(Arrays.asList(secondId, firstId, secondId));
+        
+        Assert.assertEquals(3, result.size());
+        Assert.assertEquals("Second", result.get(0).getFirstName());
+        Assert.assertEquals("First", result.get(1).getFirstName());
+        Assert.assertEquals("Second", result.get(2).getFirstName());
+    }
+    
+    @Test
+    public void saveBatch() {
+        long count = repository.count();
+        repository.saveBatch(newPersons("Saved" + System.nanoTime(), 3));
+        
+        Assert.assertEquals(count + 3, repository.count());
+    }
+    
+    @Test
+    public void deleteIterable() {
+        String lastName = "Deleted" + System.nanoTime();
+        
+        repository.delete(savePersons(lastName, 3));
+        
+        Assert.assertTrue(repository.findByLastName(lastName).isEmpty());
+    }
+    
+    @Test
+    public void deleteAllOfClusterIsRolledBack() {
+        final String cluster = scratchCluster("person_deleted");
+        
+        repository.deleteAll(cluster);
+        saveToCluster(cluster, 2);
+        
+        new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                repository.deleteAll(cluster);
+                status.setRollbackOnly();
+            }
+        });
+        
+        Assert.assertEquals(2, repository.count(cluster));
+        
+        repository.deleteAll(cluster);
+        
+        Assert.assertEquals(0, repository.count(cluster));
+    }
+    
+    @Test
+    public void truncateCluster() {
+        String cluster = scratchCluster("person_truncated");
+        
+        saveToCluster(cluster, 2);
+        repository.truncate(cluster);
+        
+        Assert.assertEquals(0, repository.count(cluster));
+    }
+    
+    @Test(expectedExceptions = IllegalTransactionStateException.class)
+    public void truncateWithinTransaction() {
+        final String cluster = scratchCluster("person_truncated");
+        
+        new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                repository.truncate(cluster);
+            }
+        });
+    }
+    
+    private String scratchCluster(String name) {
+        OObjectDatabaseTx db = dbf.db();
+        
+        if (db.getClusterIdByName(name) < 0) {
+            db.getMetadata().getSchema().getClass(Person.class).addClusterId(db.addCluster(name));
+        }
+        
+        return name;
+    }
+    
+    private void saveToCluster(String cluster, int count) {
+        for (int i = 0; i < count; i++) {
+            Person person = new Person();
+            person.setFirstName("Scratch");
+            person.setLastName("Person");
+            repository.save(person, cluster);
+        }
+    }
+    
+    @Test
+    public void writeBehindCoalescesUpdates() throws InterruptedException {
+        OrientWriteBehindBuffer buffer = new OrientWriteBehindBuffer(new OrientObjectTemplate(dbf));
+        buffer.setFlushInterval(60000);
+        buffer.start();
+        
+        Person person = new Person();
+        person.setFirstName("Dzmitry");
+        person.setLastName("Buffered");
+        person = repository.detachAll(repository.save(person));
+        
+        person.setFirstName("Once");
+        buffer.save(person);
+        person.setFirstName("Twice");
+        buffer.save(person);
+        // The buffer keeps a copy, so changes after the save are not written
+        person.setFirstName("Unsaved");
+        
+        Assert.assertEquals(1, buffer.getPendingCount());
+        
+        buffer.destroy();
+        
+        Assert.assertEquals(0, buffer.getPendingCount());
+        Assert.assertEquals("Twice", repository.findOne(person.getRid()).getFirstName());
+    }
+    
+    @Test
+    public void bulkLoad() {
+        List<Person> persons = newPersons("Loaded" + System.nanoTime(), 10);
+        
+        OrientBulkLoader loader = new OrientBulkLoader(dbf);
+        loader.setThreads(2);
+        loader.setBatchSize(3);
+        
+        long count = repository.count();
+        
+        Assert.assertEquals(10, loader.load(Person.class, persons).getRecords());
+        Assert.assertEquals(count + 10, repository.count());
+    }
+    
+    @Test
+    public void bulkLoadStopsWorkersOnProducerFailure() throws InterruptedException {
+        final String lastName = "Failed" + System.nanoTime();
+        
+        Iterator<Person> persons = new Iterator<Person>() {
+            
+            private int produced;
+            
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+            
+            @Override
+            public Person next() {
+                if (produced++ == 7) {
+                    throw new IllegalStateException("Producer failed");
+                }
+                
+                Person person = new Person();
+                person.setFirstName("Bulk");
+                person.setLastName(lastName);
+                return person;
+            }
+            
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+        
+        OrientBulkLoader loader = new OrientBulkLoader(dbf);
+        loader.setThreads(2);
+        loader.setBatchSize(3);
+        
+        try {
+            loader.load(Person.class, persons);
+            Assert.fail("Load must fail with the producer!");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("Producer failed", e.getCause().getMessage());
+        }
+        
+        // The workers are terminated once the load fails, so nothing is written afterwards
+        int loaded = repository.findByLastName(lastName).size();
+        Thread.sleep(200);
+        
+        Assert.assertTrue(loaded <= 6);
+        Assert.assertEquals(loaded, repository.findByLastName(lastName).size());
+    }
+    
+    @Test
+    public void deleteByLastName() {
+        String lastName = "Deleted" + System.nanoTime();
+        
+        Person person = new Person();
+        person.setFirstName("Dzmitry");
+        person.setLastName(lastName);
+        repository.save(person);
+        
+        Assert.assertEquals(1, repository.deleteByLastName(lastName));
+        Assert.assertFalse(repository.existsByLastName(lastName));
+    }
+    
+    @Test
+    public void updateFirstNameByLastName() {
+        String lastName = "Updated" + System.nanoTime();
+        
+        Person person = new Person();
+        person.setFirstName("Dzmitry");
+        person.setLastName(lastName);
+        repository.save(person);
+        
+        Assert.assertEquals(1, repository.updateFirstNameByLastName("Renamed", lastName));
+        Assert.assertEquals("Renamed", repository.findByLastName(lastName).get(0).getFirstName());
+    }
+    
     @Test
     public void findByFirstNameLike() {
         for (Person person : repository.findByFirstNameLike("Dzm%")) {
@@ -90,6 +535,20 @@ public class PersonRepositoryTests extends AbstractTestNGSpringContextTests {
         }
     }
     
+    @Test
+    public void readByFirstNameStreams() {
+        CloseableIterator<Person> persons = repository.readByFirstName("Dzmitry");
+        
+        try {
+            Assert.assertTrue(persons.hasNext());
+            Assert.assertEquals("Dzmitry", persons.next().getFirstName());
+        } finally {
+            persons.close();
+        }
+        
+        Assert.assertFalse(persons.hasNext());
+    }
+    
     @Test
     public void findByLastName() {
         Assert.assertFalse(repository.findByLastName("Naskou").isEmpty());
@@ -0,0 +1,39 @@
+package org.springframework.data.orient.object.plan;
+
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.orient.object.plan.indexed.IndexedAddressRepository;
+import org.springframework.data.orient.object.plan.indexed.IndexedQueryPlanTestConfiguration;
+import org.springframework.data.orient.object.plan.unindexed.UnindexedQueryPlanTestConfiguration;
+import org.testng.annotations.Test;
+
+public class QueryPlanVerificationTests {
+
+    @Test
+    public void indexedMethodPasses() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(IndexedQueryPlanTestConfiguration.class);
+        
+        try {
+            assertNotNull(context.getBean(IndexedAddressRepository.class));
+        } finally {
+            context.close();
+        }
+    }
+    
+    @Test
+    public void unindexedMethodFailsStartup() {
+        try {
+            new AnnotationConfigApplicationContext(UnindexedQueryPlanTestConfiguration.class).close();
+            fail("Context must not start with an unindexed method!");
+        } catch (BeanCreationException e) {
+            Throwable cause = e.getMostSpecificCause();
+            
+            assertTrue(cause instanceof IllegalStateException);
+            assertTrue(cause.getMessage().contains("findByStreet"));
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.springframework.data.orient.object.plan.indexed;
+
+import java.util.List;
+
+import org.springframework.data.orient.object.repository.OrientObjectRepository;
+import org.test.data.Address;
+
+public interface IndexedAddressRepository extends OrientObjectRepository<Address> {
+
+    List<Address> findByCity(String city);
+}
@@ -0,0 +1,51 @@
+package org.springframework.data.orient.object.plan.indexed;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.orient.core.OrientObjectTemplate;
+import org.springframework.data.orient.repository.config.EnableOrientRepositories;
+import org.springframework.data.orient.repository.query.QueryPlanVerification;
+import org.springframework.orm.orient.OrientObjectDatabaseFactory;
+import org.test.data.Address;
+
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
+
+@Configuration
+@EnableOrientRepositories(basePackages = "org.springframework.data.orient.object.plan.indexed", queryPlanVerification = QueryPlanVerification.FAIL)
+public class IndexedQueryPlanTestConfiguration {
+
+    @Bean
+    public OrientObjectDatabaseFactory factory() {
+        OrientObjectDatabaseFactory factory =  new OrientObjectDatabaseFactory();
+        
+        factory.setUrl("plocal:test/spring-data-test");
+        factory.setUsername("admin");
+        factory.setPassword("admin");
+        return factory;
+    }
+    
+    @Bean
+    public OrientObjectTemplate objectTemplate() {
+        return new OrientObjectTemplate(factory());
+    }
+    
+    @PostConstruct
+    public void registerEntities() {
+        OObjectDatabaseTx db = factory().db();
+        db.getEntityManager().registerEntityClass(Address.class);
+        
+        OClass address = db.getMetadata().getSchema().getClass(Address.class);
+        
+        if (address.getProperty("city") == null) {
+            address.createProperty("city", OType.STRING);
+        }
+        
+        if (address.getClassIndex("Address.city") == null) {
+            address.createIndex("Address.city", OClass.INDEX_TYPE.NOTUNIQUE, "city");
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.springframework.data.orient.object.plan.unindexed;
+
+import java.util.List;
+
+import org.springframework.data.orient.object.repository.OrientObjectRepository;
+import org.test.data.Address;
+
+public interface UnindexedAddressRepository extends OrientObjectRepository<Address> {
+
+    List<Address> findByStreet(String street);
+}
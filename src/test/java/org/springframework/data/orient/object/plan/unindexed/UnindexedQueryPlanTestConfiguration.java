@@ -0,0 +1,36 @@
+package org.springframework.data.orient.object.plan.unindexed;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.orient.core.OrientObjectTemplate;
+import org.springframework.data.orient.repository.config.EnableOrientRepositories;
+import org.springframework.data.orient.repository.query.QueryPlanVerification;
+import org.springframework.orm.orient.OrientObjectDatabaseFactory;
+import org.test.data.Address;
+
+@Configuration
+@EnableOrientRepositories(basePackages = "org.springframework.data.orient.object.plan.unindexed", queryPlanVerification = QueryPlanVerification.FAIL)
+public class UnindexedQueryPlanTestConfiguration {
+
+    @Bean
+    public OrientObjectDatabaseFactory factory() {
+        OrientObjectDatabaseFactory factory =  new OrientObjectDatabaseFactory();
+        
+        factory.setUrl("plocal:test/spring-data-test");
+        factory.setUsername("admin");
+        factory.setPassword("admin");
+        return factory;
+    }
+    
+    @Bean
+    public OrientObjectTemplate objectTemplate() {
+        return new OrientObjectTemplate(factory());
+    }
+    
+    @PostConstruct
+    public void registerEntities() {
+        factory().db().getEntityManager().registerEntityClass(Address.class);
+    }
+}
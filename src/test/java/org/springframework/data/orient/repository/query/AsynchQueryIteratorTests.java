@@ -0,0 +1,105 @@
+package org.springframework.data.orient.repository.query;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.orient.core.OrientOperations;
+import org.springframework.data.orient.object.person.PersonRepository;
+import org.springframework.data.orient.object.person.PersonRepositoryTestConfiguration;
+import org.springframework.data.orient.object.repository.DetachMode;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
+import org.test.data.Person;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+
+@ContextConfiguration(classes = PersonRepositoryTestConfiguration.class)
+public class AsynchQueryIteratorTests extends AbstractTestNGSpringContextTests {
+
+    @Autowired
+    OrientOperations operations;
+    
+    @Autowired
+    PersonRepository repository;
+    
+    private ExecutorService executor;
+    
+    @BeforeMethod
+    public void before() {
+        executor = Executors.newSingleThreadExecutor();
+        
+        for (int i = 0; i < 3; i++) {
+            Person person = new Person();
+            person.setFirstName("Dzmitry");
+            person.setLastName("Streamed");
+            repository.save(person);
+        }
+    }
+    
+    @Test
+    public void streamsAllRecords() {
+        AsynchQueryIterator iterator = start(0);
+        long count = 0;
+        
+        while (iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+        
+        assertTrue(count >= 3);
+        assertFalse(iterator.hasNext());
+    }
+    
+    @Test
+    public void closeCancelsQuery() throws InterruptedException {
+        AsynchQueryIterator iterator = start(0);
+        
+        assertTrue(iterator.hasNext());
+        iterator.close();
+        
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertFalse(iterator.hasNext());
+    }
+    
+    @Test(expectedExceptions = QueryTimeoutException.class)
+    public void idleTimeoutCancelsQuery() throws InterruptedException {
+        AsynchQueryIterator iterator = start(100);
+        
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        
+        iterator.hasNext();
+    }
+    
+    @Test(expectedExceptions = QueryTimeoutException.class)
+    public void idleTimeoutStopsWaitingForResults() {
+        // Keeps the only executor thread busy, so the query does not produce any results in time
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        
+        start(100).hasNext();
+    }
+    
+    private AsynchQueryIterator start(long idleTimeout) {
+        OSQLSynchQuery<Object> query = new OSQLSynchQuery<Object>("select from Person where lastName = ?");
+        
+        return new AsynchQueryIterator(operations, null, DetachMode.ENTITY, 1, idleTimeout).start(executor, query, new Object[] {"Streamed"});
+    }
+}
@@ -0,0 +1,52 @@
+package org.springframework.data.orient.repository.query;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.data.orient.repository.query.HistogramQueryMetrics.Statistics;
+import org.testng.annotations.Test;
+
+public class HistogramQueryMetricsTests {
+
+    @Test
+    public void noStatisticsWhenNotExecuted() {
+        assertNull(new HistogramQueryMetrics().getStatistics("PersonRepository.findByFirstName"));
+    }
+    
+    @Test
+    public void countsExecutionsRowsAndFailures() {
+        HistogramQueryMetrics metrics = new HistogramQueryMetrics();
+        metrics.record("PersonRepository.findByFirstName", 1000, 3, null);
+        metrics.record("PersonRepository.findByFirstName", 3000, 2, null);
+        metrics.record("PersonRepository.findByFirstName", 2000, -1, new IllegalStateException());
+        
+        Statistics statistics = metrics.getStatistics("PersonRepository.findByFirstName");
+        
+        assertEquals(statistics.getCount(), 3);
+        assertEquals(statistics.getFailures(), 1);
+        assertEquals(statistics.getRows(), 5);
+        assertEquals(statistics.getMeanNanos(), 2000);
+        assertEquals(statistics.getMaxNanos(), 3000);
+    }
+    
+    @Test
+    public void percentilesAreBoundedByTheirBucket() {
+        HistogramQueryMetrics metrics = new HistogramQueryMetrics();
+        
+        for (int i = 0; i < 99; i++) {
+            metrics.record("PersonRepository.findAll", TimeUnit.MICROSECONDS.toNanos(100), 1, null);
+        }
+        
+        metrics.record("PersonRepository.findAll", TimeUnit.MILLISECONDS.toNanos(50), 1, null);
+        
+        Statistics statistics = metrics.getStatistics("PersonRepository.findAll");
+        long p50 = statistics.getPercentileNanos(50);
+        
+        assertTrue(p50 >= TimeUnit.MICROSECONDS.toNanos(100) && p50 < TimeUnit.MICROSECONDS.toNanos(200));
+        assertTrue(statistics.getPercentileNanos(99) < TimeUnit.MICROSECONDS.toNanos(200));
+        assertEquals(statistics.getPercentileNanos(100), TimeUnit.MILLISECONDS.toNanos(50));
+    }
+}
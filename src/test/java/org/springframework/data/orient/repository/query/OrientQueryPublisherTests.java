@@ -0,0 +1,146 @@
+package org.springframework.data.orient.repository.query;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.orient.core.OrientOperations;
+import org.springframework.data.orient.object.person.PersonRepository;
+import org.springframework.data.orient.object.person.PersonRepositoryTestConfiguration;
+import org.springframework.data.orient.object.person.PersonRepositoryTests;
+import org.springframework.data.orient.object.repository.DetachMode;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
+import org.test.data.Person;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+
+@ContextConfiguration(classes = PersonRepositoryTestConfiguration.class)
+public class OrientQueryPublisherTests extends AbstractTestNGSpringContextTests {
+
+    @Autowired
+    OrientOperations operations;
+    
+    @Autowired
+    PersonRepository repository;
+    
+    private ExecutorService executor;
+    
+    /** The last name unique to the test, so the rows of earlier runs are not published. */
+    private String lastName;
+    
+    @BeforeMethod
+    public void before() {
+        executor = Executors.newSingleThreadExecutor();
+        lastName = "Published" + System.nanoTime();
+        repository.save(PersonRepositoryTests.newPersons(lastName, 3));
+    }
+    
+    @AfterMethod
+    public void after() throws InterruptedException {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    public void publishesOnlyRequestedElements() throws InterruptedException {
+        RecordingSubscriber subscriber = subscribe("select from Person where lastName = ?", 0);
+        
+        subscriber.subscription.request(1);
+        assertTrue(subscriber.awaitElements(1));
+        Thread.sleep(200);
+        
+        assertEquals(subscriber.elements.size(), 1);
+        assertFalse(subscriber.isTerminated());
+        
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue(subscriber.awaitTermination());
+        
+        assertEquals(subscriber.elements.size(), 3);
+        assertTrue(subscriber.completed);
+        assertEquals(((Person) subscriber.elements.get(2)).getLastName(), lastName);
+    }
+    
+    @Test
+    public void cancelStopsPublishing() throws InterruptedException {
+        RecordingSubscriber subscriber = subscribe("select from Person where lastName = ?", 0);
+        
+        subscriber.subscription.request(1);
+        assertTrue(subscriber.awaitElements(1));
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(5);
+        
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        
+        assertEquals(subscriber.elements.size(), 1);
+        assertFalse(subscriber.isTerminated());
+    }
+    
+    @Test
+    public void demandTimeoutSignalsError() throws InterruptedException {
+        RecordingSubscriber subscriber = subscribe("select from Person where lastName = ?", 100);
+        
+        subscriber.subscription.request(1);
+        assertTrue(subscriber.awaitTermination());
+        
+        assertEquals(subscriber.elements.size(), 1);
+        assertTrue(subscriber.error instanceof QueryTimeoutException);
+    }
+    
+    @Test
+    public void queryFailureSignalsError() throws InterruptedException {
+        RecordingSubscriber subscriber = subscribe("select from UnknownClass where lastName = ?", 0);
+        
+        subscriber.subscription.request(1);
+        assertTrue(subscriber.awaitTermination());
+        
+        assertTrue(subscriber.elements.isEmpty());
+        assertTrue(subscriber.error != null);
+    }
+    
+    @Test
+    public void nonPositiveRequestSignalsError() throws InterruptedException {
+        RecordingSubscriber subscriber = subscribe("select from Person where lastName = ?", 0);
+        
+        subscriber.subscription.request(0);
+        assertTrue(subscriber.awaitTermination());
+        
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+    }
+    
+    @Test
+    public void nonPositiveRequestOfRunningQuerySignalsSingleError() throws InterruptedException {
+        RecordingSubscriber subscriber = subscribe("select from Person where lastName = ?", 0);
+        
+        subscriber.subscription.request(1);
+        assertTrue(subscriber.awaitElements(1));
+        subscriber.subscription.request(0);
+        assertTrue(subscriber.awaitTermination());
+        
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        
+        assertEquals(subscriber.elements.size(), 1);
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertFalse(subscriber.completed);
+        assertEquals(subscriber.terminalSignals.get(), 1);
+    }
+    
+    private RecordingSubscriber subscribe(String query, long demandTimeout) {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        
+        new OrientQueryPublisher<Object>(operations, executor, new OSQLSynchQuery<Object>(query), new Object[] {lastName}, null, DetachMode.ENTITY, demandTimeout).subscribe(subscriber);
+        
+        return subscriber;
+    }
+}
@@ -0,0 +1,50 @@
+package org.springframework.data.orient.repository.query;
+
+import static org.testng.Assert.assertEquals;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.testng.annotations.Test;
+
+public class OrientSqlBuilderTests {
+
+    @Test
+    public void selectFromClass() {
+        assertEquals(new OrientSqlBuilder().select().from("Person").build(), "select from Person");
+    }
+    
+    @Test
+    public void selectCountFromCluster() {
+        assertEquals(new OrientSqlBuilder().selectCount().from(QueryUtils.clusterToSource("person_temp")).build(), "select count(*) from cluster:person_temp");
+    }
+    
+    @Test
+    public void selectWithCondition() {
+        assertEquals(new OrientSqlBuilder().select().from("Person").where("address.city = ?").build(), "select from Person where address.city = ?");
+    }
+    
+    @Test
+    public void emptyConditionIsIgnored() {
+        assertEquals(new OrientSqlBuilder().select().from("Person").where(null).build(), "select from Person");
+    }
+    
+    @Test
+    public void selectWithOrderSkipAndLimit() {
+        Sort sort = new Sort(Direction.ASC, "lastName").and(new Sort(Direction.DESC, "@rid"));
+        
+        assertEquals(new OrientSqlBuilder().select().from("Person").orderBy(sort).skip(20).limit(10).build(),
+                "select from Person order by lastName asc, @rid desc skip 20 limit 10");
+    }
+    
+    @Test
+    public void reusedBufferIsCleared() {
+        OrientSqlBuilder.reuse().select().from("Person").build();
+        
+        assertEquals(OrientSqlBuilder.reuse().select("firstName", "lastName").from("Person").build(), "select firstName, lastName from Person");
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void orderByRejectsExpressions() {
+        new OrientSqlBuilder().select().from("Person").orderBy(new Sort("age; delete from Person"));
+    }
+}
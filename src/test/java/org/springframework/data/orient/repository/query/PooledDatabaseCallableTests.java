@@ -0,0 +1,62 @@
+package org.springframework.data.orient.repository.query;
+
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.orient.object.person.PersonRepositoryTestConfiguration;
+import org.springframework.orm.orient.OrientObjectDatabaseFactory;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
+
+@ContextConfiguration(classes = PersonRepositoryTestConfiguration.class)
+public class PooledDatabaseCallableTests extends AbstractTestNGSpringContextTests {
+
+    @Autowired
+    OrientObjectDatabaseFactory dbf;
+    
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    
+    @Test
+    public void callerBindingIsRestored() {
+        new TransactionTemplate(transactionManager).execute(new TransactionCallback<Object>() {
+            @Override
+            public Object doInTransaction(TransactionStatus status) {
+                final Object resource = TransactionSynchronizationManager.getResource(dbf);
+                Object current = ODatabaseRecordThreadLocal.INSTANCE.getIfDefined();
+                
+                // Runs on the calling thread the way a caller-runs executor does
+                callOnCallingThread(new Callable<Object>() {
+                    @Override
+                    public Object call() {
+                        assertNotSame(TransactionSynchronizationManager.getResource(dbf), resource);
+                        return null;
+                    }
+                });
+                
+                assertSame(TransactionSynchronizationManager.getResource(dbf), resource);
+                assertSame(ODatabaseRecordThreadLocal.INSTANCE.getIfDefined(), current);
+                return null;
+            }
+        });
+    }
+    
+    private void callOnCallingThread(Callable<Object> callable) {
+        try {
+            new PooledDatabaseCallable<Object>(dbf, callable).call();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.springframework.data.orient.repository.query;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+import org.testng.annotations.Test;
+
+public class QueryResultCacheTests {
+
+    @Test
+    public void missWhenEmpty() {
+        assertSame(new QueryResultCache(0, 10).get(new Object[] {"Minsk"}), QueryResultCache.MISS);
+    }
+    
+    @Test
+    public void hitByEqualArguments() {
+        QueryResultCache cache = new QueryResultCache(0, 10);
+        cache.put(new Object[] {"Minsk", new String[] {"BY"}}, "result", cache.getGeneration());
+        
+        assertEquals(cache.get(new Object[] {"Minsk", new String[] {"BY"}}), "result");
+    }
+    
+    @Test
+    public void cachesNullResults() {
+        QueryResultCache cache = new QueryResultCache(0, 10);
+        cache.put(new Object[] {"Minsk"}, null, cache.getGeneration());
+        
+        assertNull(cache.get(new Object[] {"Minsk"}));
+    }
+    
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        QueryResultCache cache = new QueryResultCache(0, 2);
+        cache.put(new Object[] {1}, "one", cache.getGeneration());
+        cache.put(new Object[] {2}, "two", cache.getGeneration());
+        cache.get(new Object[] {1});
+        cache.put(new Object[] {3}, "three", cache.getGeneration());
+        
+        assertEquals(cache.get(new Object[] {1}), "one");
+        assertSame(cache.get(new Object[] {2}), QueryResultCache.MISS);
+    }
+    
+    @Test
+    public void expiresAfterTimeToLive() throws InterruptedException {
+        QueryResultCache cache = new QueryResultCache(1, 10);
+        cache.put(new Object[] {1}, "one", cache.getGeneration());
+        Thread.sleep(5);
+        
+        assertSame(cache.get(new Object[] {1}), QueryResultCache.MISS);
+    }
+    
+    @Test
+    public void skipsResultsQueriedBeforeClear() {
+        QueryResultCache cache = new QueryResultCache(0, 10);
+        long generation = cache.getGeneration();
+        cache.clear();
+        cache.put(new Object[] {1}, "one", generation);
+        
+        assertEquals(cache.size(), 0);
+    }
+}
@@ -0,0 +1,111 @@
+package org.springframework.data.orient.repository.query;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.orient.repository.ContinuationToken;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.orient.core.id.ORecordId;
+
+public class QueryUtilsTests {
+
+    @Test
+    public void keysetSortEndsWithRid() {
+        assertEquals(QueryUtils.toKeysetSort(new Sort("lastName")), new Sort("lastName", "@rid"));
+    }
+    
+    @Test
+    public void keysetSortKeepsRidDirection() {
+        Sort sort = new Sort(Direction.DESC, "@rid").and(new Sort("lastName"));
+        
+        assertEquals(QueryUtils.toKeysetSort(sort), new Sort("lastName").and(new Sort(Direction.DESC, "@rid")));
+    }
+    
+    @Test
+    public void projectedSortOrdersByProjectedRid() {
+        Sort sort = QueryUtils.toKeysetSort(new Sort(Direction.DESC, "@rid").and(new Sort("lastName")));
+        
+        assertEquals(QueryUtils.toProjectedSort(sort), new Sort("lastName").and(new Sort(Direction.DESC, "rid")));
+    }
+    
+    @Test
+    public void seekConditionIsExpanded() {
+        Sort sort = QueryUtils.toKeysetSort(new Sort(Direction.DESC, "age"));
+        
+        assertEquals(QueryUtils.toSeekCondition(sort, new ContinuationToken("#9:1", 30)), "age <= ? and ((age < ?) or (age = ? and @rid > ?))");
+    }
+    
+    @Test
+    public void seekConditionOfRidIsNotRanged() {
+        assertEquals(QueryUtils.toSeekCondition(QueryUtils.toKeysetSort(null), new ContinuationToken("#9:1")), "(@rid > ?)");
+        assertEquals(QueryUtils.toSeekValues(new ContinuationToken("#9:1")), new Object[] {new ORecordId("#9:1")});
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void seekConditionRejectsForeignToken() {
+        QueryUtils.toSeekCondition(QueryUtils.toKeysetSort(null), new ContinuationToken("#9:1", 30));
+    }
+    
+    @Test
+    public void seekValuesFollowCondition() {
+        Object[] values = QueryUtils.toSeekValues(new ContinuationToken("#9:1", 30));
+        
+        assertEquals(values, new Object[] {30, 30, 30, new ORecordId("#9:1")});
+    }
+    
+    @Test
+    public void sortingIsInsertedBeforeTrailingClauses() {
+        String query = QueryUtils.applySorting("select from Person where lastName = 'skip' limit 5", new Sort(Direction.DESC, "age"));
+        
+        assertEquals(query, "select from Person where lastName = 'skip' order by age desc limit 5");
+    }
+    
+    @Test
+    public void sortingIsMergedIntoDeclaredOrder() {
+        String query = QueryUtils.applySorting("select from Person order by lastName fetchplan *:1", new Sort("firstName"));
+        
+        assertEquals(query, "select from Person order by lastName, firstName asc fetchplan *:1");
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void seekConditionRejectsExpressions() {
+        QueryUtils.toSeekCondition(QueryUtils.toKeysetSort(new Sort("age; delete from Person")), new ContinuationToken("#9:1", 30));
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void sortingRejectsExpressions() {
+        QueryUtils.applySorting("select from Person", new Sort("age; delete from Person"));
+    }
+    
+    @Test
+    public void skipIsInsertedBeforeLimit() {
+        assertEquals(QueryUtils.applySkip("select from Person limit 10", 20), "select from Person skip 20 limit 10");
+    }
+    
+    @Test
+    public void countQueryReplacesProjection() {
+        String query = QueryUtils.toCountQuery("select firstName from Person where lastName = ? order by firstName limit 5");
+        
+        assertEquals(query, "select count(*) from Person where lastName = ?");
+    }
+    
+    @Test
+    public void countQueryOfDistinctUsesSubQuery() {
+        assertEquals(QueryUtils.toCountQuery("select distinct(lastName) from Person"), "select count(*) from (select distinct(lastName) from Person)");
+    }
+    
+    @Test
+    public void criteriaOfSubQueriesAreIgnored() {
+        assertEquals(QueryUtils.hasCriteria("select from (select from Person where age > 3)"), false);
+        assertEquals(QueryUtils.hasCriteria("select from Person where lastName = 'from'"), true);
+    }
+    
+    @Test
+    public void ridsToSource() {
+        assertEquals(QueryUtils.ridsToSource(Arrays.asList(new ORecordId(12, 1), new ORecordId(12, 7))), "[#12:1, #12:7]");
+    }
+}
@@ -0,0 +1,70 @@
+package org.springframework.data.orient.repository.query;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * The subscriber recording the signals it receives.
+ */
+public class RecordingSubscriber implements Subscriber<Object> {
+    
+    public final List<Object> elements = new CopyOnWriteArrayList<Object>();
+    
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    
+    public final AtomicInteger terminalSignals = new AtomicInteger();
+    
+    public volatile Subscription subscription;
+    
+    public volatile boolean completed;
+    
+    public volatile Throwable error;
+    
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        this.subscription = subscription;
+    }
+    
+    @Override
+    public void onNext(Object element) {
+        elements.add(element);
+    }
+    
+    @Override
+    public void onError(Throwable error) {
+        this.error = error;
+        terminalSignals.incrementAndGet();
+        terminated.countDown();
+    }
+    
+    @Override
+    public void onComplete() {
+        completed = true;
+        terminalSignals.incrementAndGet();
+        terminated.countDown();
+    }
+    
+    public boolean isTerminated() {
+        return terminated.getCount() == 0;
+    }
+    
+    public boolean awaitTermination() throws InterruptedException {
+        return terminated.await(5, TimeUnit.SECONDS);
+    }
+    
+    public boolean awaitElements(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        
+        while (elements.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        
+        return elements.size() >= count;
+    }
+}